@@ -0,0 +1,60 @@
+package com.university.analytics;
+
+/**
+ * Aggregation primitives over column ranges [from, to)
+ * VectorKernels implements them with the incubating Vector API when the
+ * jdk.incubator.vector module is available; ScalarKernels is the portable fallback.
+ */
+interface ColumnKernels {
+
+    /**
+     * @return Sum of values[from..to)
+     */
+    long sum(int[] values, int from, int to);
+
+    /**
+     * @return Number of positions where values[i] == value
+     */
+    int countEqual(int[] values, int value, int from, int to);
+
+    /**
+     * @return Sum of values[i] over positions where codes[i] == code
+     */
+    long sumWhereEqual(int[] values, int[] codes, int code, int from, int to);
+
+    /**
+     * @return Number of positions where min &lt;= values[i] &lt;= max
+     */
+    int countBetween(long[] values, long min, long max, int from, int to);
+
+    /**
+     * Add the number of occurrences of each code to counts[code]
+     * @param codes Values in [0, counts.length)
+     */
+    void histogram(int[] codes, int from, int to, long[] counts);
+
+    /**
+     * @return Short name for statistics, e.g. "vector (256-bit)"
+     */
+    String describe();
+
+    /**
+     * Pick the fastest available implementation.
+     * The vector implementation is loaded reflectively so that this class, and everything
+     * using it, still works on a JVM started without --add-modules jdk.incubator.vector.
+     * Set -Danalytics.vector=false to force the scalar kernels.
+     * @return Kernels to use
+     */
+    static ColumnKernels create() {
+        boolean enabled = Boolean.parseBoolean(System.getProperty("analytics.vector", "true"));
+        if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (ColumnKernels) Class.forName("com.university.analytics.VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("⚠️ Vector API unavailable, using scalar analytics: " + e);
+            }
+        }
+        return new ScalarKernels();
+    }
+}
@@ -0,0 +1,128 @@
+package com.university.analytics;
+
+import com.university.dao.RegistrationDAO;
+import com.university.dao.RegistrationListener;
+
+/**
+ * Keeps a RegistrationColumns snapshot in step with the registrations table
+ * refresh() reads only registrations with an ID above the snapshot's highest, so keeping
+ * up costs time proportional to the new rows. IDs are assigned at insert but rows become
+ * visible at commit, so a lower ID can appear after a higher one was read; refresh() then
+ * compares the number of rows up to the snapshot's highest ID with the snapshot's size and
+ * rebuilds if they differ, which also catches rows deleted by another process. A registration
+ * dropped in this process marks the shared snapshot stale, and the next refresh() rebuilds it.
+ * Course changes that affect existing rows are only picked up by rebuild().
+ * Readers use whichever snapshot was current when they asked; a refresh never blocks them.
+ */
+public class RegistrationAnalytics {
+    private static final RegistrationAnalytics SHARED = new RegistrationAnalytics(new RegistrationDAO());
+    private static final int FETCH_SIZE = Integer.getInteger("analytics.fetchSize", 10_000);
+
+    static {
+        RegistrationDAO.addRegistrationListener(new RegistrationListener() {
+            @Override
+            public void onRegistered(int studentId, int courseId) {
+                // Read by the next refresh()
+            }
+
+            @Override
+            public void onDropped(int studentId, int courseId) {
+                SHARED.markStale();
+            }
+        });
+    }
+
+    private final RegistrationDAO registrationDAO;
+    private volatile RegistrationColumns snapshot;
+    private volatile boolean stale = false;
+
+    /**
+     * @param registrationDAO Source of registration facts
+     */
+    public RegistrationAnalytics(RegistrationDAO registrationDAO) {
+        this.registrationDAO = registrationDAO;
+    }
+
+    /**
+     * @return Instance shared by the reporting and maintenance screens
+     */
+    public static RegistrationAnalytics shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return Current snapshot without touching the database, null if never loaded
+     */
+    public RegistrationColumns getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Serve a snapshot built elsewhere, e.g. from a warm-start file; refresh() continues from it
+     * @param columns Snapshot to use
+     */
+    public synchronized void seed(RegistrationColumns columns) {
+        snapshot = columns;
+    }
+
+    /**
+     * Make the next refresh() read every registration again, e.g. after rows were deleted
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Append registrations added since the last refresh, or rebuild if the snapshot is stale
+     * @return Up-to-date snapshot; the previous one if the read failed, or null if there is none
+     */
+    public synchronized RegistrationColumns refresh() {
+        if (stale) {
+            return rebuild();
+        }
+        RegistrationColumns base = snapshot != null ? snapshot : RegistrationColumns.empty();
+        if (load(base) && !isComplete(snapshot)) {
+            System.out.println("⚠️ Registrations committed out of order or deleted elsewhere, rebuilding analytics");
+            return rebuild();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard the snapshot and read every registration again
+     * @return New snapshot; the previous one if the read failed, or null if there is none
+     */
+    public synchronized RegistrationColumns rebuild() {
+        // Cleared first, so a drop during the scan leaves the snapshot stale again
+        stale = false;
+        if (!load(RegistrationColumns.empty())) {
+            stale = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return false if the table holds a different number of rows up to the snapshot's
+     *         highest ID than the snapshot; true if they match or the count failed
+     */
+    private static boolean isComplete(RegistrationColumns columns) {
+        long rows = RegistrationDAO.countRegistrationsUpTo(columns.getMaxRegistrationId());
+        return rows < 0 || rows == columns.size();
+    }
+
+    /**
+     * @return false if the read failed and the snapshot was left as it was
+     */
+    private boolean load(RegistrationColumns base) {
+        RegistrationColumns.Appender appender = base.appender();
+        long rows = registrationDAO.forEachRegistrationFact(base.getMaxRegistrationId(), FETCH_SIZE, appender::add);
+        if (rows < 0) {
+            System.err.println("⚠️ Registration analytics snapshot not refreshed");
+            return false;
+        }
+        if (snapshot == null || appender.getAppendedCount() > 0 || base.isEmpty()) {
+            snapshot = appender.build();
+        }
+        return true;
+    }
+}
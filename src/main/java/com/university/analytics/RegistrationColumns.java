@@ -0,0 +1,347 @@
+package com.university.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column-oriented snapshot of registrations for analytics
+ * One primitive array per attribute instead of one Registration object per row:
+ * student, course and credits as ints, department and semester dictionary-encoded
+ * as small int codes, enrollment time as epoch seconds. That is about 28 bytes per
+ * registration, and every aggregate is a tight loop over one or two arrays.
+ *
+ * Snapshots are extended with an Appender. The new snapshot shares the old arrays
+ * while they have spare capacity, which is safe because a snapshot never reads past
+ * its own size and rows are only ever written past the size of the newest snapshot.
+ */
+public final class RegistrationColumns {
+    private static final ColumnKernels KERNELS = ColumnKernels.create();
+    // Columns larger than this are aggregated in parallel chunks
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CREDIT_HISTOGRAM = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final RegistrationColumns EMPTY = new RegistrationColumns(0, 0,
+            new int[0], new int[0], new int[0], new int[0], new int[0], new long[0],
+            List.of(), List.of(), Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    private final int size;
+    private final int maxRegistrationId;
+    private final int[] studentIds;
+    private final int[] courseIds;
+    private final int[] credits;
+    private final int[] departmentCodes;
+    private final int[] semesterCodes;
+    private final long[] enrolledAt;
+    private final List<String> departments;
+    private final List<String> semesters;
+    private final int minCredits;
+    private final int maxCredits;
+
+    private RegistrationColumns(int size, int maxRegistrationId, int[] studentIds, int[] courseIds, int[] credits,
+                                int[] departmentCodes, int[] semesterCodes, long[] enrolledAt,
+                                List<String> departments, List<String> semesters, int minCredits, int maxCredits) {
+        this.size = size;
+        this.maxRegistrationId = maxRegistrationId;
+        this.studentIds = studentIds;
+        this.courseIds = courseIds;
+        this.credits = credits;
+        this.departmentCodes = departmentCodes;
+        this.semesterCodes = semesterCodes;
+        this.enrolledAt = enrolledAt;
+        this.departments = departments;
+        this.semesters = semesters;
+        this.minCredits = minCredits;
+        this.maxCredits = maxCredits;
+    }
+
+    /**
+     * @return Snapshot without rows
+     */
+    public static RegistrationColumns empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return Appender that builds on this snapshot without changing it
+     */
+    public Appender appender() {
+        return new Appender(this);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * @return Highest registration ID in the snapshot, 0 if empty
+     */
+    public int getMaxRegistrationId() { return maxRegistrationId; }
+
+    public List<String> getDepartments() { return departments; }
+
+    public List<String> getSemesters() { return semesters; }
+
+    /**
+     * @return Name of the aggregation kernels in use, e.g. "vector (256-bit)" or "scalar"
+     */
+    public static String getKernelName() { return KERNELS.describe(); }
+
+    /**
+     * @return Approximate heap used by the column arrays, including spare capacity
+     */
+    public long getMemoryBytes() {
+        return 4L * (studentIds.length + courseIds.length + credits.length
+                + departmentCodes.length + semesterCodes.length) + 8L * enrolledAt.length;
+    }
+
+    /**
+     * @return Registrations per department, in dictionary order
+     */
+    public Map<String, Long> departmentCounts() {
+        return toMap(departments, histogram(departmentCodes, departments.size()));
+    }
+
+    /**
+     * @return Registrations per semester, in dictionary order
+     */
+    public Map<String, Long> semesterCounts() {
+        return toMap(semesters, histogram(semesterCodes, semesters.size()));
+    }
+
+    /**
+     * @return Registrations per credit hours value
+     */
+    public Map<Integer, Long> creditCounts() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        if (size == 0) {
+            return counts;
+        }
+        if (minCredits >= 0 && maxCredits < MAX_CREDIT_HISTOGRAM) {
+            long[] histogram = histogram(credits, maxCredits + 1);
+            for (int value = 0; value < histogram.length; value++) {
+                if (histogram[value] > 0) {
+                    counts.put(value, histogram[value]);
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                counts.merge(credits[i], 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return Credit hours summed over all registrations
+     */
+    public long totalCredits() {
+        return chunks().mapToLong(chunk -> KERNELS.sum(credits, from(chunk), to(chunk))).sum();
+    }
+
+    /**
+     * @param department Department name
+     * @return Credit hours summed over registrations in the department, 0 if unknown
+     */
+    public long totalCredits(String department) {
+        int code = departments.indexOf(department);
+        if (code < 0) {
+            return 0;
+        }
+        return chunks().mapToLong(chunk ->
+                KERNELS.sumWhereEqual(credits, departmentCodes, code, from(chunk), to(chunk))).sum();
+    }
+
+    /**
+     * @param department Department name
+     * @return Number of registrations in the department
+     */
+    public long countDepartment(String department) {
+        int code = departments.indexOf(department);
+        if (code < 0) {
+            return 0;
+        }
+        return chunks().mapToLong(chunk -> KERNELS.countEqual(departmentCodes, code, from(chunk), to(chunk))).sum();
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Number of registrations for the course
+     */
+    public long countCourse(int courseId) {
+        return chunks().mapToLong(chunk -> KERNELS.countEqual(courseIds, courseId, from(chunk), to(chunk))).sum();
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return Number of courses the student is registered for
+     */
+    public long countStudent(int studentId) {
+        return chunks().mapToLong(chunk -> KERNELS.countEqual(studentIds, studentId, from(chunk), to(chunk))).sum();
+    }
+
+    /**
+     * @param fromEpochSecond Start of the period, inclusive
+     * @param toEpochSecond End of the period, inclusive
+     * @return Number of registrations enrolled in the period; ones without a date never match
+     */
+    public long countEnrolledBetween(long fromEpochSecond, long toEpochSecond) {
+        long min = Math.max(fromEpochSecond, Long.MIN_VALUE + 1);
+        return chunks().mapToLong(chunk ->
+                KERNELS.countBetween(enrolledAt, min, toEpochSecond, from(chunk), to(chunk))).sum();
+    }
+
+    private long[] histogram(int[] codes, int codeCount) {
+        if (size <= CHUNK_SIZE) {
+            long[] counts = new long[codeCount];
+            KERNELS.histogram(codes, 0, size, counts);
+            return counts;
+        }
+        return chunks().mapToObj(chunk -> {
+            long[] counts = new long[codeCount];
+            KERNELS.histogram(codes, from(chunk), to(chunk), counts);
+            return counts;
+        }).reduce(new long[codeCount], (a, b) -> {
+            long[] sum = new long[codeCount];
+            for (int i = 0; i < codeCount; i++) {
+                sum[i] = a[i] + b[i];
+            }
+            return sum;
+        });
+    }
+
+    private static Map<String, Long> toMap(List<String> dictionary, long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                map.put(dictionary.get(code), counts[code]);
+            }
+        }
+        return map;
+    }
+
+    private IntStream chunks() {
+        int chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunks = IntStream.range(0, chunkCount);
+        return chunkCount > 1 ? chunks.parallel() : chunks;
+    }
+
+    private static int from(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private int to(int chunk) {
+        return (int) Math.min(size, (long) (chunk + 1) * CHUNK_SIZE);
+    }
+
+    /**
+     * Appends rows after the end of a base snapshot. Not thread-safe; use one per refresh.
+     */
+    public static final class Appender {
+        private final int baseSize;
+        private int size;
+        private int maxRegistrationId;
+        private int[] studentIds;
+        private int[] courseIds;
+        private int[] credits;
+        private int[] departmentCodes;
+        private int[] semesterCodes;
+        private long[] enrolledAt;
+        private final List<String> departments;
+        private final List<String> semesters;
+        private final Map<String, Integer> departmentLookup = new HashMap<>();
+        private final Map<String, Integer> semesterLookup = new HashMap<>();
+        private int minCredits;
+        private int maxCredits;
+
+        private Appender(RegistrationColumns base) {
+            this.baseSize = base.size;
+            this.size = base.size;
+            this.maxRegistrationId = base.maxRegistrationId;
+            this.studentIds = base.studentIds;
+            this.courseIds = base.courseIds;
+            this.credits = base.credits;
+            this.departmentCodes = base.departmentCodes;
+            this.semesterCodes = base.semesterCodes;
+            this.enrolledAt = base.enrolledAt;
+            this.departments = new ArrayList<>(base.departments);
+            this.semesters = new ArrayList<>(base.semesters);
+            for (int i = 0; i < departments.size(); i++) {
+                departmentLookup.put(departments.get(i), i);
+            }
+            for (int i = 0; i < semesters.size(); i++) {
+                semesterLookup.put(semesters.get(i), i);
+            }
+            this.minCredits = base.minCredits;
+            this.maxCredits = base.maxCredits;
+        }
+
+        /**
+         * Append one registration; matches RegistrationFactConsumer so it can be passed as a method reference
+         */
+        public void add(int registrationId, int studentId, int courseId, int courseCredits,
+                        String department, String semester, long enrolledAtEpochSecond) {
+            if (size == studentIds.length) {
+                grow();
+            }
+            studentIds[size] = studentId;
+            courseIds[size] = courseId;
+            credits[size] = courseCredits;
+            departmentCodes[size] = encode(department, departments, departmentLookup);
+            semesterCodes[size] = encode(semester, semesters, semesterLookup);
+            enrolledAt[size] = enrolledAtEpochSecond;
+            size++;
+            maxRegistrationId = Math.max(maxRegistrationId, registrationId);
+            minCredits = Math.min(minCredits, courseCredits);
+            maxCredits = Math.max(maxCredits, courseCredits);
+        }
+
+        /**
+         * @return Number of rows appended so far
+         */
+        public int getAppendedCount() { return size - baseSize; }
+
+        /**
+         * @return Snapshot with the base rows followed by the appended ones
+         */
+        public RegistrationColumns build() {
+            return new RegistrationColumns(size, maxRegistrationId, studentIds, courseIds, credits,
+                    departmentCodes, semesterCodes, enrolledAt,
+                    List.copyOf(departments), List.copyOf(semesters), minCredits, maxCredits);
+        }
+
+        private static int encode(String value, List<String> dictionary, Map<String, Integer> lookup) {
+            String key = value != null ? value : "";
+            Integer code = lookup.get(key);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(key);
+                lookup.put(key, code);
+            }
+            return code;
+        }
+
+        /**
+         * Copy the columns into arrays 1.5 times larger; the base snapshot keeps its own
+         */
+        private void grow() {
+            int capacity = studentIds.length == 0
+                    ? INITIAL_CAPACITY
+                    : (int) Math.min(Integer.MAX_VALUE - 8, studentIds.length + (long) (studentIds.length >> 1));
+            if (capacity <= size) {
+                throw new IllegalStateException("Registration snapshot is full at " + size + " rows");
+            }
+            studentIds = Arrays.copyOf(studentIds, capacity);
+            courseIds = Arrays.copyOf(courseIds, capacity);
+            credits = Arrays.copyOf(credits, capacity);
+            departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+            semesterCodes = Arrays.copyOf(semesterCodes, capacity);
+            enrolledAt = Arrays.copyOf(enrolledAt, capacity);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.university.analytics;
+
+/**
+ * Plain loops; the JIT may still auto-vectorize the simpler ones
+ */
+class ScalarKernels implements ColumnKernels {
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int countEqual(int[] values, int value, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sumWhereEqual(int[] values, int[] codes, int code, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            if (codes[i] == code) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int countBetween(long[] values, long min, long max, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] >= min && values[i] <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void histogram(int[] codes, int from, int to, long[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[codes[i]]++;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "scalar";
+    }
+}
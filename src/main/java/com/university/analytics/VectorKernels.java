@@ -0,0 +1,112 @@
+package com.university.analytics;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels on the Vector API, using the widest vectors the CPU supports
+ * Only loaded through ColumnKernels.create() once the module is known to be present.
+ */
+class VectorKernels implements ColumnKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // Half-width int vectors, so that sums can be widened into full-width long lanes and never overflow
+    private static final VectorSpecies<Integer> WIDENING_INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    // Up to this many codes, one compare-and-count pass per code beats a scalar scatter
+    private static final int MAX_VECTOR_HISTOGRAM_CODES = 4;
+
+    @Override
+    public long sum(int[] values, int from, int to) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = from;
+        int upper = from + WIDENING_INTS.loopBound(to - from);
+        for (; i < upper; i += WIDENING_INTS.length()) {
+            acc = acc.add(widen(IntVector.fromArray(WIDENING_INTS, values, i)));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public int countEqual(int[] values, int value, int from, int to) {
+        int count = 0;
+        int i = from;
+        int upper = from + INTS.loopBound(to - from);
+        for (; i < upper; i += INTS.length()) {
+            count += IntVector.fromArray(INTS, values, i).eq(value).trueCount();
+        }
+        for (; i < to; i++) {
+            if (values[i] == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long sumWhereEqual(int[] values, int[] codes, int code, int from, int to) {
+        LongVector acc = LongVector.zero(LONGS);
+        IntVector zero = IntVector.zero(WIDENING_INTS);
+        int i = from;
+        int upper = from + WIDENING_INTS.loopBound(to - from);
+        for (; i < upper; i += WIDENING_INTS.length()) {
+            VectorMask<Integer> match = IntVector.fromArray(WIDENING_INTS, codes, i).eq(code);
+            IntVector selected = zero.blend(IntVector.fromArray(WIDENING_INTS, values, i), match);
+            acc = acc.add(widen(selected));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            if (codes[i] == code) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int countBetween(long[] values, long min, long max, int from, int to) {
+        int count = 0;
+        int i = from;
+        int upper = from + LONGS.loopBound(to - from);
+        for (; i < upper; i += LONGS.length()) {
+            LongVector v = LongVector.fromArray(LONGS, values, i);
+            count += v.compare(VectorOperators.GE, min).and(v.compare(VectorOperators.LE, max)).trueCount();
+        }
+        for (; i < to; i++) {
+            if (values[i] >= min && values[i] <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void histogram(int[] codes, int from, int to, long[] counts) {
+        if (counts.length > MAX_VECTOR_HISTOGRAM_CODES) {
+            for (int i = from; i < to; i++) {
+                counts[codes[i]]++;
+            }
+            return;
+        }
+        for (int code = 0; code < counts.length; code++) {
+            counts[code] += countEqual(codes, code, from, to);
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "vector (" + INTS.vectorBitSize() + "-bit)";
+    }
+
+    private static LongVector widen(IntVector ints) {
+        return (LongVector) ints.convertShape(VectorOperators.I2L, LONGS, 0);
+    }
+}
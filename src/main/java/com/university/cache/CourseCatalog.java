@@ -0,0 +1,73 @@
+package com.university.cache;
+
+import com.university.model.Course;
+import com.university.util.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the course catalogue
+ * Built once per load and published as a whole, so readers on any thread see a
+ * consistent catalogue without locking. The Course objects are shared by all
+ * readers and must be treated as read-only.
+ */
+public final class CourseCatalog {
+    private final List<Course> courses;
+    private final IntObjectMap<Course> coursesById;
+    private final long loadedAtNanos;
+
+    /**
+     * @param courses Courses in display order (by course code)
+     * @param loadedAtNanos System.nanoTime() when the courses were read
+     */
+    CourseCatalog(List<Course> courses, long loadedAtNanos) {
+        this.courses = List.copyOf(courses);
+        this.coursesById = new IntObjectMap<>(courses.size());
+        for (Course course : courses) {
+            coursesById.put(course.getCourseId(), course);
+        }
+        this.loadedAtNanos = loadedAtNanos;
+    }
+
+    /**
+     * @return All courses ordered by course code, unmodifiable
+     */
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Course with that ID, or null if it is not in this snapshot
+     */
+    public Course getCourse(int courseId) {
+        return coursesById.get(courseId);
+    }
+
+    /**
+     * Copy of this snapshot with one course added or replaced, keeping the load time
+     * @param course Course read from the database
+     * @return New snapshot
+     */
+    CourseCatalog withCourse(Course course) {
+        List<Course> updated = new ArrayList<>(courses);
+        updated.removeIf(existing -> existing.getCourseId() == course.getCourseId());
+        int position = 0;
+        while (position < updated.size()
+                && String.CASE_INSENSITIVE_ORDER.compare(updated.get(position).getCourseCode(),
+                        course.getCourseCode()) <= 0) {
+            position++;
+        }
+        updated.add(position, course);
+        return new CourseCatalog(updated, loadedAtNanos);
+    }
+
+    public int size() {
+        return courses.size();
+    }
+
+    long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+}
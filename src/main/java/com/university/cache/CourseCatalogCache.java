@@ -0,0 +1,146 @@
+package com.university.cache;
+
+import com.university.model.Course;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of the course catalogue
+ * Readers get the current CourseCatalog snapshot from a volatile field; the catalogue
+ * is reloaded when it has been invalidated or is older than the time-to-live. Only one
+ * thread reloads at a time; while a reload runs, other readers keep using the previous
+ * snapshot if there is one. A failed reload keeps the previous snapshot as well.
+ */
+public class CourseCatalogCache {
+    private final Loader loader;
+    private final long ttlNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile CourseCatalog snapshot;
+    private volatile boolean stale = true;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param loader Reads the full catalogue from the database
+     * @param ttl Maximum age of a snapshot before it is reloaded
+     * @param unit Unit of ttl
+     */
+    public CourseCatalogCache(Loader loader, long ttl, TimeUnit unit) {
+        this.loader = loader;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Get the current catalogue, loading it first if it is missing, invalidated or expired
+     * @return Catalogue snapshot
+     * @throws SQLException if there is no snapshot yet and loading fails
+     */
+    public CourseCatalog get() throws SQLException {
+        CourseCatalog current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+
+        if (current != null) {
+            // Someone else is already reloading: serve the previous snapshot meanwhile
+            if (!reloadLock.tryLock()) {
+                return current;
+            }
+        } else {
+            reloadLock.lock();
+        }
+        try {
+            CourseCatalog latest = snapshot;
+            return isFresh(latest) ? latest : load(latest);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Install a catalogue read from elsewhere, e.g. a warm-start snapshot.
+     * It is served like a freshly loaded one until invalidated or expired.
+     * @param courses All courses ordered by course code
+     */
+    public void seed(List<Course> courses) {
+        reloadLock.lock();
+        try {
+            snapshot = new CourseCatalog(courses, System.nanoTime());
+            stale = false;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Add or replace one course in the current snapshot, e.g. one found in the database
+     * but missing from the cache. Without a snapshot the next read loads everything anyway.
+     * @param course Course as read from the database
+     */
+    public void put(Course course) {
+        reloadLock.lock();
+        try {
+            CourseCatalog current = snapshot;
+            if (current != null) {
+                snapshot = current.withCourse(course);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the catalogue as changed; the next read loads it again
+     */
+    public void invalidate() {
+        stale = true;
+        invalidations.increment();
+    }
+
+    public long getLoadCount() { return loads.sum(); }
+
+    public long getInvalidationCount() { return invalidations.sum(); }
+
+    private boolean isFresh(CourseCatalog catalog) {
+        return catalog != null && !stale && System.nanoTime() - catalog.getLoadedAtNanos() < ttlNanos;
+    }
+
+    /**
+     * Read the catalogue; called with reloadLock held
+     */
+    private CourseCatalog load(CourseCatalog previous) throws SQLException {
+        // Clear the flag before reading so an invalidation during the load is not lost
+        stale = false;
+        long startedAt = System.nanoTime();
+        try {
+            CourseCatalog loaded = new CourseCatalog(loader.load(), startedAt);
+            snapshot = loaded;
+            loads.increment();
+            return loaded;
+        } catch (SQLException | RuntimeException e) {
+            stale = true;
+            if (previous != null) {
+                System.err.println("⚠️ Could not refresh course catalogue, using cached copy: " + e.getMessage());
+                return previous;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Source of the catalogue
+     */
+    public interface Loader {
+        /**
+         * @return All courses ordered by course code
+         * @throws SQLException if the courses cannot be read
+         */
+        List<Course> load() throws SQLException;
+    }
+}
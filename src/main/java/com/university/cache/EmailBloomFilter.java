@@ -0,0 +1,129 @@
+package com.university.cache;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of normalised email addresses
+ * mightContain() never returns false for an email that was added, so a negative answer
+ * proves an email is unused without asking the database; a positive answer only means
+ * "possibly used" and must be confirmed. Emails are trimmed and lower-cased, matching the
+ * case-insensitive unique index on students.email. Thread-safe: bits are set with CAS.
+ */
+public class EmailBloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions Number of emails the filter is sized for
+     * @param falsePositiveRate Target false positive probability at that size, e.g. 0.01
+     */
+    public EmailBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        this.falsePositiveRate = falsePositiveRate;
+
+        // Optimal size m = -n ln p / (ln 2)^2 and hash count k = m/n ln 2
+        long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Add an email
+     * @param email Email address, any case
+     */
+    public void put(String email) {
+        long hash = hash(normalize(email));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashCount; i++) {
+            changed |= setBit(bitIndex(h1 + (long) i * h2));
+        }
+        if (changed) {
+            insertions.increment();
+        }
+    }
+
+    /**
+     * @param email Email address, any case
+     * @return false if the email was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String email) {
+        long hash = hash(normalize(email));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = bitIndex(h1 + (long) i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getExpectedInsertions() { return expectedInsertions; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+
+    /**
+     * @return Number of distinct emails added, not counting ones that were indistinguishable from earlier ones
+     */
+    public long getApproximateCount() { return insertions.sum(); }
+
+    /**
+     * @return False positive probability for the current fill, (1 - e^(-kn/m))^k
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.sum() / bitCount), hashCount);
+    }
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long bitIndex(long combinedHash) {
+        return Math.floorMod(combinedHash, bitCount);
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters followed by a murmur3 finaliser
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
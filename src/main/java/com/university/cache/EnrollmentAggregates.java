@@ -0,0 +1,167 @@
+package com.university.cache;
+
+import com.university.model.Course;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Registration counts per course, department and semester, kept up to date as
+ * registrations are written instead of recomputed from the registration join
+ * Counters are LongAdders, so concurrent registrations never contend on a lock and
+ * reading a total costs one sum over a few cells.
+ *
+ * reconcile() corrects drift from writes made outside this process. Courses are
+ * assumed not to change department or semester once they have registrations; this
+ * application never updates a course.
+ */
+public class EnrollmentAggregates {
+    private final ConcurrentHashMap<Integer, CourseCounter> courses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> departments = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> semesters = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Record one new registration
+     * @param course Course the student registered for
+     */
+    public void increment(Course course) {
+        add(course, 1);
+    }
+
+    /**
+     * Adjust every counter the course contributes to
+     * @param course Course
+     * @param delta Registrations to add, negative to subtract
+     */
+    public void add(Course course, long delta) {
+        courses.computeIfAbsent(course.getCourseId(), id -> new CourseCounter(course)).count.add(delta);
+        departments.computeIfAbsent(course.getDepartment(), key -> new LongAdder()).add(delta);
+        semesters.computeIfAbsent(course.getSemester(), key -> new LongAdder()).add(delta);
+        total.add(delta);
+    }
+
+    /**
+     * @return Current count for every course that has a counter, for passing to reconcile()
+     */
+    public Map<Integer, Long> snapshotCourseCounts() {
+        Map<Integer, Long> counts = new HashMap<>(courses.size() * 4 / 3 + 1);
+        courses.forEach((courseId, counter) -> counts.put(courseId, counter.count.sum()));
+        return counts;
+    }
+
+    /**
+     * Bring the counters in line with counts read from the database.
+     * Each course moves by (counted - before), so registrations recorded while the count
+     * ran are kept. One that the count also saw is counted twice until the next reconcile.
+     * @param counted Registrations per course ID as read from the database
+     * @param before snapshotCourseCounts() taken just before the database was read
+     * @param courseLookup Resolves course IDs that have no counter yet; may return null
+     * @return Number of courses whose count was corrected
+     */
+    public int reconcile(Map<Integer, Long> counted, Map<Integer, Long> before, IntFunction<Course> courseLookup) {
+        int corrected = 0;
+        for (Map.Entry<Integer, Long> entry : counted.entrySet()) {
+            long delta = entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+            if (delta != 0) {
+                CourseCounter counter = courses.get(entry.getKey());
+                Course course = counter != null ? counter.course : courseLookup.apply(entry.getKey());
+                if (course != null) {
+                    add(course, delta);
+                    corrected++;
+                }
+            }
+        }
+        // Courses whose registrations have all gone
+        for (Map.Entry<Integer, Long> entry : before.entrySet()) {
+            if (entry.getValue() != 0 && !counted.containsKey(entry.getKey())) {
+                add(courses.get(entry.getKey()).course, -entry.getValue());
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Registrations for the course
+     */
+    public long getCourseCount(int courseId) {
+        CourseCounter counter = courses.get(courseId);
+        return counter != null ? counter.count.sum() : 0;
+    }
+
+    /**
+     * @param department Department name
+     * @return Registrations for courses in the department
+     */
+    public long getDepartmentCount(String department) {
+        LongAdder count = departments.get(department);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * @param semester Semester name
+     * @return Registrations for courses in the semester
+     */
+    public long getSemesterCount(String semester) {
+        LongAdder count = semesters.get(semester);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * @return Registrations per department, departments without any left out
+     */
+    public Map<String, Long> getDepartmentCounts() {
+        return nonZero(departments);
+    }
+
+    /**
+     * @return Registrations per semester, semesters without any left out
+     */
+    public Map<String, Long> getSemesterCounts() {
+        return nonZero(semesters);
+    }
+
+    /**
+     * @return Total number of registrations
+     */
+    public long getTotal() { return total.sum(); }
+
+    /**
+     * Visit every course with at least one registration
+     * @param action Receives the course and its registration count
+     */
+    public void forEachCourse(ObjLongConsumer<Course> action) {
+        courses.forEach((courseId, counter) -> {
+            long count = counter.count.sum();
+            if (count > 0) {
+                action.accept(counter.course, count);
+            }
+        });
+    }
+
+    private static Map<String, Long> nonZero(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> counts = new HashMap<>();
+        counters.forEach((key, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                counts.put(key, sum);
+            }
+        });
+        return counts;
+    }
+
+    private static class CourseCounter {
+        final Course course;
+        final LongAdder count = new LongAdder();
+
+        CourseCounter(Course course) {
+            this.course = course;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.university.cache;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory student-course enrollment graph
+ * The bulk of the graph is held in two compressed sparse row (CSR) structures, one per
+ * direction: an offsets array indexed by ID and one int array of sorted neighbour IDs,
+ * so a million registrations take about 8 MB plus the offsets. Registrations written
+ * after the build go into a small sorted delta of packed (from, to) longs, which is
+ * merged into new CSR arrays once it grows past COMPACT_THRESHOLD.
+ *
+ * Readers use an immutable snapshot from a volatile field and never lock; writers
+ * synchronize on the index and publish a new snapshot. Lookups cost O(degree) plus a
+ * binary search in the delta, and never box.
+ */
+public class EnrollmentIndex {
+    private static final int COMPACT_THRESHOLD = 4096;
+    private static final long[] NO_EDGES = new long[0];
+
+    private volatile Snapshot snapshot = new Snapshot(Csr.EMPTY, Csr.EMPTY, NO_EDGES, NO_EDGES, NO_EDGES, NO_EDGES);
+
+    /**
+     * @return Builder for the initial contents, see replace()
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Replace the whole index with the registrations collected by a builder
+     * @param builder Registrations read from the database
+     */
+    public synchronized void replace(Builder builder) {
+        snapshot = builder.build();
+    }
+
+    /**
+     * Record a new registration; adding an existing one has no effect
+     * @param studentId Student ID
+     * @param courseId Course ID
+     */
+    public synchronized void add(int studentId, int courseId) {
+        Snapshot current = snapshot;
+        long studentEdge = pack(studentId, courseId);
+        long courseEdge = pack(courseId, studentId);
+
+        if (contains(current.removedByStudent, studentEdge)) {
+            // Re-registration of a dropped base edge: just forget the removal
+            publish(new Snapshot(current.byStudent, current.byCourse,
+                    current.addedByStudent, current.addedByCourse,
+                    without(current.removedByStudent, studentEdge), without(current.removedByCourse, courseEdge)));
+        } else if (!current.byStudent.contains(studentId, courseId)
+                && !contains(current.addedByStudent, studentEdge)) {
+            publish(new Snapshot(current.byStudent, current.byCourse,
+                    with(current.addedByStudent, studentEdge), with(current.addedByCourse, courseEdge),
+                    current.removedByStudent, current.removedByCourse));
+        }
+    }
+
+    /**
+     * Record a dropped registration; removing a missing one has no effect
+     * @param studentId Student ID
+     * @param courseId Course ID
+     */
+    public synchronized void remove(int studentId, int courseId) {
+        Snapshot current = snapshot;
+        long studentEdge = pack(studentId, courseId);
+        long courseEdge = pack(courseId, studentId);
+
+        if (contains(current.addedByStudent, studentEdge)) {
+            publish(new Snapshot(current.byStudent, current.byCourse,
+                    without(current.addedByStudent, studentEdge), without(current.addedByCourse, courseEdge),
+                    current.removedByStudent, current.removedByCourse));
+        } else if (current.byStudent.contains(studentId, courseId)
+                && !contains(current.removedByStudent, studentEdge)) {
+            publish(new Snapshot(current.byStudent, current.byCourse,
+                    current.addedByStudent, current.addedByCourse,
+                    with(current.removedByStudent, studentEdge), with(current.removedByCourse, courseEdge)));
+        }
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return IDs of the courses the student is registered for, ascending
+     */
+    public int[] getCourseIds(int studentId) {
+        Snapshot current = snapshot;
+        return neighbours(current.byStudent, current.addedByStudent, current.removedByStudent, studentId);
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return IDs of the students registered for the course, ascending
+     */
+    public int[] getStudentIds(int courseId) {
+        Snapshot current = snapshot;
+        return neighbours(current.byCourse, current.addedByCourse, current.removedByCourse, courseId);
+    }
+
+    /**
+     * Visit the courses of a student without allocating, in no particular order
+     */
+    public void forEachCourse(int studentId, IntConsumer action) {
+        Snapshot current = snapshot;
+        forEachNeighbour(current.byStudent, current.addedByStudent, current.removedByStudent, studentId, action);
+    }
+
+    /**
+     * Visit the students of a course without allocating, in no particular order
+     */
+    public void forEachStudent(int courseId, IntConsumer action) {
+        Snapshot current = snapshot;
+        forEachNeighbour(current.byCourse, current.addedByCourse, current.removedByCourse, courseId, action);
+    }
+
+    /**
+     * @return Number of courses the student is registered for
+     */
+    public int getCourseCount(int studentId) {
+        Snapshot current = snapshot;
+        return degree(current.byStudent, current.addedByStudent, current.removedByStudent, studentId);
+    }
+
+    /**
+     * @return Number of students registered for the course
+     */
+    public int getStudentCount(int courseId) {
+        Snapshot current = snapshot;
+        return degree(current.byCourse, current.addedByCourse, current.removedByCourse, courseId);
+    }
+
+    /**
+     * @return true if the student is registered for the course
+     */
+    public boolean contains(int studentId, int courseId) {
+        Snapshot current = snapshot;
+        long edge = pack(studentId, courseId);
+        if (contains(current.addedByStudent, edge)) {
+            return true;
+        }
+        return current.byStudent.contains(studentId, courseId) && !contains(current.removedByStudent, edge);
+    }
+
+    /**
+     * @return Total number of registrations in the index
+     */
+    public long getRegistrationCount() {
+        Snapshot current = snapshot;
+        return (long) current.byStudent.targets.length + current.addedByStudent.length - current.removedByStudent.length;
+    }
+
+    /**
+     * @return Approximate heap used by the index arrays, in bytes
+     */
+    public long getMemoryBytes() {
+        Snapshot current = snapshot;
+        return 4L * (current.byStudent.offsets.length + current.byStudent.targets.length
+                + current.byCourse.offsets.length + current.byCourse.targets.length)
+                + 8L * (current.addedByStudent.length + current.addedByCourse.length
+                + current.removedByStudent.length + current.removedByCourse.length);
+    }
+
+    /**
+     * Publish a new snapshot, first folding the delta into fresh CSR arrays if it has grown large
+     */
+    private void publish(Snapshot next) {
+        if (next.addedByStudent.length + next.removedByStudent.length <= COMPACT_THRESHOLD) {
+            snapshot = next;
+            return;
+        }
+
+        Builder builder = new Builder();
+        for (int studentId = 0; studentId + 1 < next.byStudent.offsets.length; studentId++) {
+            int from = studentId;
+            forEachNeighbour(next.byStudent, next.addedByStudent, next.removedByStudent, studentId,
+                    courseId -> builder.add(from, courseId));
+        }
+        // Added edges of students beyond the CSR range
+        for (long edge : next.addedByStudent) {
+            if (high(edge) + 1 >= next.byStudent.offsets.length) {
+                builder.add(high(edge), low(edge));
+            }
+        }
+        snapshot = builder.build();
+    }
+
+    private static int[] neighbours(Csr base, long[] added, long[] removed, int id) {
+        int[] result = new int[degree(base, added, removed, id)];
+        int count = 0;
+        int from = base.from(id);
+        int to = base.to(id);
+        boolean checkRemoved = removed.length > 0;
+        for (int i = from; i < to; i++) {
+            int target = base.targets[i];
+            if (!checkRemoved || !contains(removed, pack(id, target))) {
+                result[count++] = target;
+            }
+        }
+        int addedFrom = lowerBound(added, pack(id, 0));
+        int addedTo = lowerBound(added, pack(id + 1, 0));
+        for (int i = addedFrom; i < addedTo; i++) {
+            result[count++] = low(added[i]);
+        }
+        if (addedTo > addedFrom) {
+            Arrays.sort(result);
+        }
+        return result;
+    }
+
+    private static void forEachNeighbour(Csr base, long[] added, long[] removed, int id, IntConsumer action) {
+        int from = base.from(id);
+        int to = base.to(id);
+        boolean checkRemoved = removed.length > 0;
+        for (int i = from; i < to; i++) {
+            int target = base.targets[i];
+            if (!checkRemoved || !contains(removed, pack(id, target))) {
+                action.accept(target);
+            }
+        }
+        int addedTo = lowerBound(added, pack(id + 1, 0));
+        for (int i = lowerBound(added, pack(id, 0)); i < addedTo; i++) {
+            action.accept(low(added[i]));
+        }
+    }
+
+    private static int degree(Csr base, long[] added, long[] removed, int id) {
+        return base.to(id) - base.from(id)
+                + lowerBound(added, pack(id + 1, 0)) - lowerBound(added, pack(id, 0))
+                - (lowerBound(removed, pack(id + 1, 0)) - lowerBound(removed, pack(id, 0)));
+    }
+
+    private static long pack(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static int high(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int low(long edge) {
+        return (int) edge;
+    }
+
+    private static boolean contains(long[] sorted, long edge) {
+        return sorted.length > 0 && Arrays.binarySearch(sorted, edge) >= 0;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long[] with(long[] sorted, long edge) {
+        int index = lowerBound(sorted, edge);
+        long[] copy = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, copy, 0, index);
+        copy[index] = edge;
+        System.arraycopy(sorted, index, copy, index + 1, sorted.length - index);
+        return copy;
+    }
+
+    private static long[] without(long[] sorted, long edge) {
+        int index = Arrays.binarySearch(sorted, edge);
+        if (index < 0) {
+            return sorted;
+        }
+        long[] copy = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, copy, 0, index);
+        System.arraycopy(sorted, index + 1, copy, index, copy.length - index);
+        return copy;
+    }
+
+    /**
+     * One direction of the graph: targets[offsets[id] .. offsets[id + 1]) are id's neighbours, sorted
+     */
+    private static final class Csr {
+        static final Csr EMPTY = new Csr(new int[1], new int[0]);
+
+        final int[] offsets;
+        final int[] targets;
+
+        Csr(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        int from(int id) {
+            return id >= 0 && id + 1 < offsets.length ? offsets[id] : 0;
+        }
+
+        int to(int id) {
+            return id >= 0 && id + 1 < offsets.length ? offsets[id + 1] : 0;
+        }
+
+        boolean contains(int id, int target) {
+            int from = from(id);
+            int to = to(id);
+            return to > from && Arrays.binarySearch(targets, from, to, target) >= 0;
+        }
+    }
+
+    private static final class Snapshot {
+        final Csr byStudent;
+        final Csr byCourse;
+        // Registrations not in the CSR arrays, as packed (from, to) longs sorted ascending
+        final long[] addedByStudent;
+        final long[] addedByCourse;
+        // Registrations in the CSR arrays that have since been dropped
+        final long[] removedByStudent;
+        final long[] removedByCourse;
+
+        Snapshot(Csr byStudent, Csr byCourse, long[] addedByStudent, long[] addedByCourse,
+                 long[] removedByStudent, long[] removedByCourse) {
+            this.byStudent = byStudent;
+            this.byCourse = byCourse;
+            this.addedByStudent = addedByStudent;
+            this.addedByCourse = addedByCourse;
+            this.removedByStudent = removedByStudent;
+            this.removedByCourse = removedByCourse;
+        }
+    }
+
+    /**
+     * Collects registrations and builds the CSR arrays with a counting sort.
+     * add() is thread-safe, so writes made during a rebuild scan can be recorded alongside it;
+     * duplicate registrations are dropped when building.
+     */
+    public static final class Builder {
+        private int[] students = new int[1024];
+        private int[] courses = new int[1024];
+        private int size;
+
+        private Builder() {}
+
+        /**
+         * @param studentId Student ID, not negative
+         * @param courseId Course ID, not negative
+         */
+        public synchronized void add(int studentId, int courseId) {
+            if (studentId < 0 || courseId < 0) {
+                throw new IllegalArgumentException("IDs must not be negative: " + studentId + ", " + courseId);
+            }
+            if (size == students.length) {
+                students = Arrays.copyOf(students, size * 2);
+                courses = Arrays.copyOf(courses, size * 2);
+            }
+            students[size] = studentId;
+            courses[size] = courseId;
+            size++;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        private synchronized Snapshot build() {
+            int maxStudent = -1;
+            int maxCourse = -1;
+            for (int i = 0; i < size; i++) {
+                maxStudent = Math.max(maxStudent, students[i]);
+                maxCourse = Math.max(maxCourse, courses[i]);
+            }
+
+            // Student -> courses: bucket by student, then sort and de-duplicate each bucket
+            int[] offsets = new int[maxStudent + 2];
+            for (int i = 0; i < size; i++) {
+                offsets[students[i] + 1]++;
+            }
+            for (int id = 0; id <= maxStudent; id++) {
+                offsets[id + 1] += offsets[id];
+            }
+            int[] targets = new int[size];
+            int[] cursor = Arrays.copyOf(offsets, offsets.length);
+            for (int i = 0; i < size; i++) {
+                targets[cursor[students[i]]++] = courses[i];
+            }
+
+            int write = 0;
+            int[] courseCounts = new int[maxCourse + 2];
+            for (int id = 0; id <= maxStudent; id++) {
+                int from = offsets[id];
+                int to = offsets[id + 1];
+                Arrays.sort(targets, from, to);
+                offsets[id] = write;
+                for (int i = from; i < to; i++) {
+                    if (i == from || targets[i] != targets[i - 1]) {
+                        targets[write++] = targets[i];
+                        courseCounts[targets[write - 1] + 1]++;
+                    }
+                }
+            }
+            if (maxStudent >= 0) {
+                offsets[maxStudent + 1] = write;
+            }
+            Csr byStudent = new Csr(offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+
+            // Course -> students: walking students in ID order leaves every bucket sorted
+            for (int id = 0; id <= maxCourse; id++) {
+                courseCounts[id + 1] += courseCounts[id];
+            }
+            int[] courseTargets = new int[write];
+            int[] courseCursor = Arrays.copyOf(courseCounts, courseCounts.length);
+            for (int studentId = 0; studentId <= maxStudent; studentId++) {
+                for (int i = byStudent.offsets[studentId]; i < byStudent.offsets[studentId + 1]; i++) {
+                    courseTargets[courseCursor[byStudent.targets[i]]++] = studentId;
+                }
+            }
+            Csr byCourse = new Csr(courseCounts, courseTargets);
+
+            return new Snapshot(byStudent, byCourse, NO_EDGES, NO_EDGES, NO_EDGES, NO_EDGES);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.university.cache;
+
+/**
+ * Approximate access frequency of int keys, for TinyLFU admission
+ * A count-min sketch of 4-bit counters packed sixteen to a long, with four counters
+ * per key. After a sample of 10 accesses per cached entry all counters are halved,
+ * so the sketch follows recent popularity instead of all-time totals.
+ * Not thread-safe; TinyLfuCache only touches it while holding its policy lock.
+ */
+class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param maximumSize Maximum number of entries of the cache this sketch serves
+     */
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(8, maximumSize) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * Math.max(8, maximumSize);
+    }
+
+    /**
+     * @param key Key
+     * @return Estimated recent access count, 0 to 15
+     */
+    int frequency(int key) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            int index = (int) (hash >>> 32) & tableMask;
+            int shift = ((int) hash & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 15));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record one access of key
+     */
+    void increment(int key) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(key, i);
+            int index = (int) (hash >>> 32) & tableMask;
+            int shift = ((int) hash & 15) << 2;
+            if (((table[index] >>> shift) & 15) != 15) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve every counter to age out old popularity
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long hash(int key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) & 3];
+        return hash ^ (hash >>> 29);
+    }
+}
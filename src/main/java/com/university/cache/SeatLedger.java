@@ -0,0 +1,156 @@
+package com.university.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Free seats per course, reserved with compare-and-set instead of a lock
+ * A course's free seats are split over several stripes, and a thread starts at its own
+ * stripe, so concurrent registrations for one popular course mostly update different
+ * cache lines instead of all retrying on one counter. A stripe that runs dry sends the
+ * thread on to the next; once every stripe is empty the course is full and further
+ * attempts are turned away without touching the database.
+ *
+ * The ledger is a filter, not the authority: the database guard on courses.seats_taken
+ * decides. reset() loads counts read from the database; exhaust() records that the
+ * database refused a seat the ledger still had. Courses with no limit, or not loaded yet,
+ * have no entry and are always let through.
+ */
+public class SeatLedger {
+    // One stripe per 64-byte cache line
+    private static final int PADDING = 16;
+    private static final int MAX_STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final ConcurrentHashMap<Integer, Seats> courses = new ConcurrentHashMap<>();
+
+    /**
+     * Take one free seat
+     * @param courseId Course ID
+     * @return true if a seat was reserved or the course has no limit, false if it is full
+     */
+    public boolean tryReserve(int courseId) {
+        Seats seats = courses.get(courseId);
+        return seats == null || seats.tryReserve();
+    }
+
+    /**
+     * Give back a seat taken with tryReserve() whose registration was not written
+     * @param courseId Course ID
+     */
+    public void release(int courseId) {
+        Seats seats = courses.get(courseId);
+        if (seats != null) {
+            seats.release();
+        }
+    }
+
+    /**
+     * Mark a course as full, e.g. when the database refused a seat the ledger still had
+     * @param courseId Course ID
+     */
+    public void exhaust(int courseId) {
+        courses.computeIfPresent(courseId, (id, seats) -> new Seats(seats.capacity, 0));
+    }
+
+    /**
+     * Load a course's seats as read from the database
+     * @param courseId Course ID
+     * @param capacity Maximum registrations, or null for no limit
+     * @param seatsTaken Registrations holding a seat
+     */
+    public void reset(int courseId, Integer capacity, int seatsTaken) {
+        if (capacity == null) {
+            courses.remove(courseId);
+        } else {
+            courses.put(courseId, new Seats(capacity, Math.max(0, capacity - seatsTaken)));
+        }
+    }
+
+    /**
+     * Replace every course with counts read from the database
+     * @param capacities Capacity per course ID, limited courses only
+     * @param seatsTaken Seats taken per course ID
+     */
+    public void resetAll(Map<Integer, Integer> capacities, Map<Integer, Integer> seatsTaken) {
+        courses.keySet().retainAll(capacities.keySet());
+        capacities.forEach((courseId, capacity) -> reset(courseId, capacity, seatsTaken.getOrDefault(courseId, 0)));
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Free seats as far as this process knows, or -1 if the course has no limit
+     */
+    public int getAvailable(int courseId) {
+        Seats seats = courses.get(courseId);
+        return seats != null ? seats.available() : -1;
+    }
+
+    /**
+     * @return Number of courses with a limit
+     */
+    public int getLimitedCourseCount() {
+        return courses.size();
+    }
+
+    /**
+     * @return Number of limited courses with no free seat
+     */
+    public int getFullCourseCount() {
+        int full = 0;
+        for (Seats seats : courses.values()) {
+            if (seats.available() == 0) {
+                full++;
+            }
+        }
+        return full;
+    }
+
+    private static int probe() {
+        // Stable per thread; the multiply spreads the hash's low bits over the stripes
+        return System.identityHashCode(Thread.currentThread()) * 0x9E3779B9 >>> 16;
+    }
+
+    private static class Seats {
+        final int capacity;
+        final int stripes;
+        final AtomicIntegerArray free;
+
+        Seats(int capacity, int available) {
+            this.capacity = capacity;
+            this.stripes = Math.max(1, Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, available))));
+            this.free = new AtomicIntegerArray(stripes * PADDING);
+            for (int i = 0; i < stripes; i++) {
+                free.set(i * PADDING, available / stripes + (i < available % stripes ? 1 : 0));
+            }
+        }
+
+        boolean tryReserve() {
+            int start = probe() & (stripes - 1);
+            for (int i = 0; i < stripes; i++) {
+                int slot = ((start + i) & (stripes - 1)) * PADDING;
+                int left = free.get(slot);
+                while (left > 0) {
+                    if (free.compareAndSet(slot, left, left - 1)) {
+                        return true;
+                    }
+                    left = free.get(slot);
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            free.getAndIncrement((probe() & (stripes - 1)) * PADDING);
+        }
+
+        int available() {
+            int total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += free.get(i * PADDING);
+            }
+            return total;
+        }
+    }
+}
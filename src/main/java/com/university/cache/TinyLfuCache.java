@@ -0,0 +1,281 @@
+package com.university.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded concurrent cache with int keys and a W-TinyLFU eviction policy
+ * New entries enter a small LRU window (1% of the capacity). An entry leaving the
+ * window competes with the main area's least recently used entry and is only admitted
+ * if the FrequencySketch says it is accessed more often, so a burst of one-off lookups
+ * cannot push out frequently used entries. The main area is a segmented LRU: entries
+ * hit again while on probation move to the protected segment (80% of the main area).
+ *
+ * Lookups read a ConcurrentHashMap without locking. Policy bookkeeping happens under
+ * a lock; a read that finds the lock busy skips its bookkeeping rather than wait,
+ * which only makes the recency and frequency information slightly less precise.
+ * @param <V> Value type
+ */
+public class TinyLfuCache<V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentHashMap<Integer, Node<V>> entries;
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+
+    private final int maximumSize;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+
+    // Each segment is a circular doubly linked list; the sentinel's next is the most recently used
+    private final Node<V> window = Node.sentinel();
+    private final Node<V> probation = Node.sentinel();
+    private final Node<V> protectedSegment = Node.sentinel();
+    private int windowSize;
+    private int protectedSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize Maximum number of cached entries
+     */
+    public TinyLfuCache(int maximumSize) {
+        this.maximumSize = Math.max(2, maximumSize);
+        this.windowCapacity = Math.max(1, this.maximumSize / 100);
+        this.protectedCapacity = (int) ((this.maximumSize - windowCapacity) * 0.8);
+        this.entries = new ConcurrentHashMap<>(this.maximumSize * 4 / 3 + 1);
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * @param key Key
+     * @return Cached value, or null on a miss
+     */
+    public V get(int key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            if (policyLock.tryLock()) {
+                try {
+                    // Count misses too, so a key that keeps coming back earns admission
+                    sketch.increment(key);
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return null;
+        }
+
+        hits.increment();
+        if (policyLock.tryLock()) {
+            try {
+                if (node.segment >= 0) {
+                    onHit(node);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Add or replace an entry; a new entry may be rejected later by the admission policy
+     * @param key Key
+     * @param value Non-null value
+     */
+    public void put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("TinyLfuCache does not store null values");
+        }
+
+        policyLock.lock();
+        try {
+            Node<V> node = entries.get(key);
+            if (node != null) {
+                node.value = value;
+                onHit(node);
+                return;
+            }
+
+            node = new Node<>(key, value);
+            entries.put(key, node);
+            node.segment = WINDOW;
+            node.linkFirst(window);
+            windowSize++;
+            sketch.increment(key);
+            evictIfNeeded();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Remove an entry, e.g. after the underlying row changed
+     * @param key Key
+     */
+    public void invalidate(int key) {
+        policyLock.lock();
+        try {
+            Node<V> node = entries.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Remove all entries; the frequency history is kept
+     */
+    public void invalidateAll() {
+        policyLock.lock();
+        try {
+            // Detach every node so a reader still holding one cannot relink it
+            for (Node<V> node : entries.values()) {
+                unlink(node);
+            }
+            entries.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public int size() { return entries.size(); }
+
+    public int getMaximumSize() { return maximumSize; }
+
+    public long getHitCount() { return hits.sum(); }
+
+    public long getMissCount() { return misses.sum(); }
+
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /**
+     * @return Fraction of lookups served from the cache, 0 if there were none
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Update recency and frequency for a cached entry; called with the policy lock held
+     */
+    private void onHit(Node<V> node) {
+        sketch.increment(node.key);
+        switch (node.segment) {
+            case WINDOW:
+                node.unlink();
+                node.linkFirst(window);
+                break;
+            case PROBATION:
+                // Second hit in the main area: promote, demoting the protected LRU if full
+                node.unlink();
+                node.segment = PROTECTED;
+                node.linkFirst(protectedSegment);
+                protectedSize++;
+                if (protectedSize > protectedCapacity) {
+                    Node<V> demoted = protectedSegment.prev;
+                    demoted.unlink();
+                    protectedSize--;
+                    demoted.segment = PROBATION;
+                    demoted.linkFirst(probation);
+                }
+                break;
+            case PROTECTED:
+                node.unlink();
+                node.linkFirst(protectedSegment);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Move window overflow into the main area, evicting whichever of candidate
+     * and main-area victim is used less often; called with the policy lock held
+     */
+    private void evictIfNeeded() {
+        while (windowSize > windowCapacity) {
+            Node<V> candidate = window.prev;
+            candidate.unlink();
+            windowSize--;
+            candidate.segment = PROBATION;
+            candidate.linkFirst(probation);
+
+            if (entries.size() <= maximumSize) {
+                continue;
+            }
+
+            Node<V> victim = probation.prev;
+            if (victim == candidate) {
+                // Probation held only the candidate; fall back to the protected LRU
+                victim = protectedSegment.prev != protectedSegment ? protectedSegment.prev : candidate;
+            }
+            Node<V> evicted = victim != candidate && sketch.frequency(candidate.key) > sketch.frequency(victim.key)
+                    ? victim
+                    : candidate;
+            entries.remove(evicted.key, evicted);
+            unlink(evicted);
+            evictions.increment();
+        }
+    }
+
+    private void unlink(Node<V> node) {
+        if (node.segment == WINDOW) {
+            windowSize--;
+        } else if (node.segment == PROTECTED) {
+            protectedSize--;
+        }
+        node.unlink();
+        node.segment = -1;
+    }
+
+    /**
+     * Cache entry and its position in one of the segment lists
+     */
+    private static class Node<V> {
+        final int key;
+        volatile V value;
+        int segment;
+        Node<V> prev;
+        Node<V> next;
+
+        Node(int key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        static <V> Node<V> sentinel() {
+            Node<V> sentinel = new Node<>(0, null);
+            sentinel.segment = -1;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        void linkFirst(Node<V> sentinel) {
+            prev = sentinel;
+            next = sentinel.next;
+            sentinel.next.prev = this;
+            sentinel.next = this;
+        }
+
+        void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.university.cache;
+
+import com.university.model.WaitlistEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Waitlists of every course, held in memory in promotion order
+ * Each course's entries sit in a ConcurrentSkipListSet ordered by priority class, then
+ * by enqueue order (waitlist ID), so the head is found without locking while students
+ * join and leave concurrently. A second map finds an entry by student and course.
+ */
+public class Waitlists {
+    private static final Comparator<WaitlistEntry> PROMOTION_ORDER =
+            Comparator.comparingInt(WaitlistEntry::getPriorityClass).thenComparingInt(WaitlistEntry::getWaitlistId);
+
+    private final ConcurrentHashMap<Integer, ConcurrentSkipListSet<WaitlistEntry>> byCourse = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, WaitlistEntry> byStudentCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Add an entry, replacing any other entry for the same student and course
+     * @param entry Waitlist entry
+     */
+    public void add(WaitlistEntry entry) {
+        WaitlistEntry previous = byStudentCourse.put(pack(entry.getStudentId(), entry.getCourseId()), entry);
+        NavigableSet<WaitlistEntry> queue = byCourse.computeIfAbsent(entry.getCourseId(),
+                id -> new ConcurrentSkipListSet<>(PROMOTION_ORDER));
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return The removed entry, or null if the student was not waiting for the course
+     */
+    public WaitlistEntry remove(int studentId, int courseId) {
+        WaitlistEntry entry = byStudentCourse.remove(pack(studentId, courseId));
+        if (entry != null) {
+            NavigableSet<WaitlistEntry> queue = byCourse.get(courseId);
+            if (queue != null) {
+                queue.remove(entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Replace every waitlist
+     * @param entries All entries, e.g. as read from the database
+     */
+    public synchronized void replaceAll(Collection<WaitlistEntry> entries) {
+        byCourse.clear();
+        byStudentCourse.clear();
+        entries.forEach(this::add);
+    }
+
+    /**
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return The student's entry for the course, or null
+     */
+    public WaitlistEntry get(int studentId, int courseId) {
+        return byStudentCourse.get(pack(studentId, courseId));
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return The course's entries in promotion order; a live view, safe to iterate while it changes
+     */
+    public Set<WaitlistEntry> getQueue(int courseId) {
+        NavigableSet<WaitlistEntry> queue = byCourse.get(courseId);
+        return queue != null ? Collections.unmodifiableSet(queue) : Set.of();
+    }
+
+    /**
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return 1 for the next student to be promoted, or 0 if the student is not waiting
+     */
+    public int getPosition(int studentId, int courseId) {
+        WaitlistEntry entry = get(studentId, courseId);
+        NavigableSet<WaitlistEntry> queue = byCourse.get(courseId);
+        if (entry == null || queue == null) {
+            return 0;
+        }
+        return queue.headSet(entry).size() + 1;
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Number of students waiting for the course
+     */
+    public int getWaitingCount(int courseId) {
+        NavigableSet<WaitlistEntry> queue = byCourse.get(courseId);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return Every course the student is waiting for; scans all entries
+     */
+    public List<WaitlistEntry> getEntriesForStudent(int studentId) {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        for (WaitlistEntry entry : byStudentCourse.values()) {
+            if (entry.getStudentId() == studentId) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingInt(WaitlistEntry::getCourseId));
+        return entries;
+    }
+
+    /**
+     * @return IDs of the courses with at least one student waiting
+     */
+    public List<Integer> getCoursesWithWaiters() {
+        List<Integer> courseIds = new ArrayList<>();
+        byCourse.forEach((courseId, queue) -> {
+            if (!queue.isEmpty()) {
+                courseIds.add(courseId);
+            }
+        });
+        return courseIds;
+    }
+
+    /**
+     * @return Number of entries on all waitlists
+     */
+    public int getTotal() {
+        return byStudentCourse.size();
+    }
+
+    private static long pack(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
+}
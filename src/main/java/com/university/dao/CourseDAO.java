@@ -1,73 +1,77 @@
 package com.university.dao;
 
+import com.university.cache.CourseCatalogCache;
 import com.university.database.DatabaseConnection;
+import com.university.database.UnitOfWork;
+import com.university.journal.ChangeJournal;
+import com.university.journal.ChangeType;
 import com.university.model.Course;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Data Access Object for Course operations
  * Handles all database operations related to courses
+ * Catalogue reads go through a shared CourseCatalogCache; addCourse invalidates it.
  */
 public class CourseDAO {
+    static final String ALL_COURSES_SQL = "SELECT * FROM courses ORDER BY course_code";
+    static final String COURSE_BY_ID_SQL = "SELECT * FROM courses WHERE course_id = ?";
+    static final String INSERT_SQL =
+            "INSERT INTO courses (course_code, course_name, credits, department, semester, capacity) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // The catalogue changes a few times per semester, so reads are served from memory;
+    // -Dcatalog.cache.ttlSeconds bounds how long a change made by another process stays unseen
+    private static final long CATALOG_TTL_SECONDS = Long.getLong("catalog.cache.ttlSeconds", 300);
+    private static final CourseCatalogCache CATALOG_CACHE =
+            new CourseCatalogCache(CourseDAO::loadAllCourses, CATALOG_TTL_SECONDS, TimeUnit.SECONDS);
 
     /**
-     * Retrieve all courses from database
-     * @return List of all courses
+     * Retrieve all courses, served from the catalogue cache
+     * @return Unmodifiable list of all courses ordered by course code, empty if they cannot be loaded
      */
     public List<Course> getAllCourses() {
-        List<Course> courses = new ArrayList<>();
-        String sql = "SELECT * FROM courses ORDER BY course_code";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                Course course = new Course();
-                course.setCourseId(rs.getInt("course_id"));
-                course.setCourseCode(rs.getString("course_code"));
-                course.setCourseName(rs.getString("course_name"));
-                course.setCredits(rs.getInt("credits"));
-                course.setDepartment(rs.getString("department"));
-                course.setSemester(rs.getString("semester"));
-
-                courses.add(course);
-            }
-
+        try {
+            return CATALOG_CACHE.get().getCourses();
         } catch (SQLException e) {
             System.err.println("❌ Error retrieving courses: " + e.getMessage());
             e.printStackTrace();
         }
 
-        return courses;
+        return List.of();
     }
 
     /**
-     * Find course by ID
+     * Find course by ID, served from the catalogue cache.
+     * A course missing from the cache is looked up in the database, in case another
+     * process added it since the last refresh; if found, the cache is invalidated.
      * @param courseId Course ID to search for
      * @return Course object if found, null otherwise
      */
     public Course getCourseById(int courseId) {
-        String sql = "SELECT * FROM courses WHERE course_id = ?";
+        try {
+            Course course = CATALOG_CACHE.get().getCourse(courseId);
+            if (course != null) {
+                return course;
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading course catalogue: " + e.getMessage());
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(COURSE_BY_ID_SQL)) {
 
             pstmt.setInt(1, courseId);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Course course = new Course();
-                course.setCourseId(rs.getInt("course_id"));
-                course.setCourseCode(rs.getString("course_code"));
-                course.setCourseName(rs.getString("course_name"));
-                course.setCredits(rs.getInt("credits"));
-                course.setDepartment(rs.getString("department"));
-                course.setSemester(rs.getString("semester"));
-
+                // Added since the catalogue was loaded: patch just this course in
+                Course course = mapCourse(rs);
+                UnitOfWork.afterCommit(() -> CATALOG_CACHE.put(course));
                 return course;
             }
 
@@ -79,22 +83,32 @@ public class CourseDAO {
         return null;
     }
 
+    /**
+     * @return Shared catalogue cache, e.g. for statistics
+     */
+    public static CourseCatalogCache getCatalogCache() {
+        return CATALOG_CACHE;
+    }
+
     /**
      * Add a new course to the database
      * @param course Course object to be added
      * @return Generated course ID if successful, -1 if failed
      */
     public int addCourse(Course course) {
-        String sql = "INSERT INTO courses (course_code, course_name, credits, department, semester) VALUES (?, ?, ?, ?, ?)";
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, course.getCourseCode());
             pstmt.setString(2, course.getCourseName());
             pstmt.setInt(3, course.getCredits());
             pstmt.setString(4, course.getDepartment());
             pstmt.setString(5, course.getSemester());
+            if (course.getCapacity() != null) {
+                pstmt.setInt(6, course.getCapacity());
+            } else {
+                pstmt.setNull(6, Types.INTEGER);
+            }
 
             int affectedRows = pstmt.executeUpdate();
 
@@ -103,6 +117,10 @@ public class CourseDAO {
                     if (generatedKeys.next()) {
                         int courseId = generatedKeys.getInt(1);
                         course.setCourseId(courseId);
+                        CATALOG_CACHE.invalidate();
+                        // A catalogue reloaded inside the unit may hold the course; drop it on rollback
+                        UnitOfWork.afterCommit(() -> ChangeJournal.record(ChangeType.COURSE_ADDED, courseId, 0));
+                        UnitOfWork.afterRollback(CATALOG_CACHE::invalidate);
                         System.out.println("✅ Course added successfully with ID: " + courseId);
                         return courseId;
                     }
@@ -114,4 +132,53 @@ public class CourseDAO {
         }
         return -1;
     }
-}
\ No newline at end of file
+
+    /**
+     * Serve the catalogue from a list read elsewhere, e.g. a warm-start snapshot,
+     * until the cache is next invalidated or expires
+     * @param courses All courses ordered by course code
+     */
+    public static void seedCatalog(List<Course> courses) {
+        CATALOG_CACHE.seed(courses);
+    }
+
+    /**
+     * Read the full catalogue from the database; the loader behind CATALOG_CACHE
+     * @return All courses ordered by course code
+     */
+    private static List<Course> loadAllCourses() throws SQLException {
+        List<Course> courses = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                throw new SQLException("No database connection available");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(ALL_COURSES_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(mapCourse(rs));
+                }
+            }
+        }
+
+        return courses;
+    }
+
+    /**
+     * Map the current result set row to a Course object
+     * @param rs Result set positioned on a courses row
+     * @return Populated Course object
+     */
+    static Course mapCourse(ResultSet rs) throws SQLException {
+        Course course = new Course();
+        course.setCourseId(rs.getInt("course_id"));
+        course.setCourseCode(rs.getString("course_code"));
+        course.setCourseName(rs.getString("course_name"));
+        course.setCredits(rs.getInt("credits"));
+        course.setDepartment(rs.getString("department"));
+        course.setSemester(rs.getString("semester"));
+        int capacity = rs.getInt("capacity");
+        course.setCapacity(rs.wasNull() ? null : capacity);
+        return course;
+    }
+}
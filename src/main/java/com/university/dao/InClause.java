@@ -0,0 +1,113 @@
+package com.university.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Helpers for SQL IN clauses with a variable number of values
+ * Placeholder lists are padded to a power of two so that different batch sizes
+ * share a handful of SQL strings and stay in the prepared statement cache.
+ */
+final class InClause {
+
+    private InClause() {}
+
+    /**
+     * @param count Number of values
+     * @return Padded placeholder count
+     */
+    static int slots(int count) {
+        return count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+    }
+
+    /**
+     * Build the placeholder list for an IN clause
+     * @param count Number of values
+     * @return Comma separated placeholders, padded to slots(count)
+     */
+    static String placeholders(int count) {
+        int slots = slots(count);
+        StringBuilder placeholders = new StringBuilder(slots * 3);
+        for (int i = 0; i < slots; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * Build the row constructor list for a (a, b) IN clause
+     * @param count Number of pairs
+     * @return Comma separated (?, ?) placeholders, padded to slots(count)
+     */
+    static String pairPlaceholders(int count) {
+        int slots = slots(count);
+        StringBuilder placeholders = new StringBuilder(slots * 8);
+        for (int i = 0; i < slots; i++) {
+            placeholders.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * Bind (a, b) IN clause pairs, repeating the last pair into the padding slots
+     * @param pstmt Statement prepared with pairPlaceholders(keys.size())
+     * @param firstIndex Index of the first IN clause parameter
+     * @param keys Pairs packed as a in the high and b in the low 32 bits
+     */
+    static void bindPairs(PreparedStatement pstmt, int firstIndex, Collection<Long> keys)
+            throws SQLException {
+        int index = firstIndex;
+        long last = 0;
+        for (long key : keys) {
+            pstmt.setInt(index++, (int) (key >>> 32));
+            pstmt.setInt(index++, (int) key);
+            last = key;
+        }
+        int end = firstIndex + 2 * slots(keys.size());
+        while (index < end) {
+            pstmt.setInt(index++, (int) (last >>> 32));
+            pstmt.setInt(index++, (int) last);
+        }
+    }
+
+    /**
+     * Bind IN clause values, repeating the last value into the padding slots
+     * @param pstmt Statement prepared with placeholders(values.size())
+     * @param firstIndex Index of the first IN clause parameter
+     * @param values Values to bind
+     */
+    static void bindInts(PreparedStatement pstmt, int firstIndex, Collection<Integer> values)
+            throws SQLException {
+        int index = firstIndex;
+        int last = 0;
+        for (Integer value : values) {
+            pstmt.setInt(index++, value);
+            last = value;
+        }
+        int end = firstIndex + slots(values.size());
+        while (index < end) {
+            pstmt.setInt(index++, last);
+        }
+    }
+
+    /**
+     * Bind IN clause values, repeating the last value into the padding slots
+     * @param pstmt Statement prepared with placeholders(values.size())
+     * @param firstIndex Index of the first IN clause parameter
+     * @param values Values to bind
+     */
+    static void bindStrings(PreparedStatement pstmt, int firstIndex, Collection<String> values)
+            throws SQLException {
+        int index = firstIndex;
+        String last = null;
+        for (String value : values) {
+            pstmt.setString(index++, value);
+            last = value;
+        }
+        int end = firstIndex + slots(values.size());
+        while (index < end) {
+            pstmt.setString(index++, last);
+        }
+    }
+}
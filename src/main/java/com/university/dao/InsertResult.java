@@ -0,0 +1,78 @@
+package com.university.dao;
+
+/**
+ * Result of an insert-if-absent write
+ * Distinguishes a newly created row from one that already existed under a unique key
+ */
+public class InsertResult {
+
+    public enum Status {
+        CREATED,
+        ALREADY_EXISTS,
+        /** Refused by a business rule, e.g. no seat left on the course */
+        REJECTED,
+        /** The row it refers to does not exist, e.g. an unknown course */
+        NOT_FOUND,
+        FAILED
+    }
+
+    private static final InsertResult REJECTED = new InsertResult(Status.REJECTED, -1);
+    private static final InsertResult NOT_FOUND = new InsertResult(Status.NOT_FOUND, -1);
+    private static final InsertResult FAILED = new InsertResult(Status.FAILED, -1);
+
+    private final Status status;
+    private final int id;
+
+    private InsertResult(Status status, int id) {
+        this.status = status;
+        this.id = id;
+    }
+
+    /**
+     * @param id Generated ID of the new row
+     */
+    public static InsertResult created(int id) {
+        return new InsertResult(Status.CREATED, id);
+    }
+
+    /**
+     * @param id ID of the existing row that holds the same unique key
+     */
+    public static InsertResult alreadyExists(int id) {
+        return new InsertResult(Status.ALREADY_EXISTS, id);
+    }
+
+    public static InsertResult rejected() {
+        return REJECTED;
+    }
+
+    public static InsertResult notFound() {
+        return NOT_FOUND;
+    }
+
+    public static InsertResult failed() {
+        return FAILED;
+    }
+
+    public Status getStatus() { return status; }
+
+    /**
+     * @return ID of the created or existing row, -1 if the insert was rejected, not found or failed
+     */
+    public int getId() { return id; }
+
+    public boolean isCreated() { return status == Status.CREATED; }
+
+    public boolean isAlreadyExists() { return status == Status.ALREADY_EXISTS; }
+
+    public boolean isRejected() { return status == Status.REJECTED; }
+
+    public boolean isNotFound() { return status == Status.NOT_FOUND; }
+
+    public boolean isFailed() { return status == Status.FAILED; }
+
+    @Override
+    public String toString() {
+        return String.format("InsertResult{Status=%s, ID=%d}", status, id);
+    }
+}
@@ -0,0 +1,40 @@
+package com.university.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Interprets INSERT ... ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id) statements
+ * Relies on useAffectedRows=true in the connection URL: with the driver's default
+ * (found rows) the no-op update on a duplicate also counts 1.
+ */
+final class InsertResults {
+
+    private InsertResults() {}
+
+    /**
+     * @param conn Connection the statement ran on
+     * @param pstmt Executed upsert, prepared with RETURN_GENERATED_KEYS
+     * @param affectedRows Affected-rows update count: 1 for a new row, 0 when the key already existed
+     * @return CREATED or ALREADY_EXISTS with the row ID
+     */
+    static InsertResult fromUpsert(Connection conn, PreparedStatement pstmt, int affectedRows)
+            throws SQLException {
+        if (affectedRows == 1) {
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return InsertResult.created(generatedKeys.getInt(1));
+                }
+            }
+            return InsertResult.failed();
+        }
+
+        // Duplicate path: LAST_INSERT_ID() now holds the existing row's ID; no table access needed
+        try (PreparedStatement lastId = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+             ResultSet rs = lastId.executeQuery()) {
+            return InsertResult.alreadyExists(rs.next() ? rs.getInt(1) : -1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.university.dao;
+
+import com.university.database.QueryPlanVerifier;
+import com.university.database.SchemaManager;
+
+import java.sql.Date;
+import java.util.Set;
+
+/**
+ * Every statement the DAOs run, with sample parameters, for query plan verification
+ * Keep this in step with the DAOs: a new query should be added here so that
+ * a missing index shows up as a failed check instead of a slow screen.
+ */
+public final class QueryCatalog {
+
+    private QueryCatalog() {}
+
+    /**
+     * Add all DAO statements to a verifier
+     * @param verifier Verifier to populate
+     * @return The same verifier
+     */
+    public static QueryPlanVerifier addAll(QueryPlanVerifier verifier) {
+        Date dateOfBirth = Date.valueOf("2000-01-01");
+
+        // StudentDAO
+        verifier.check("StudentDAO.addStudentIfAbsent", StudentDAO.INSERT_IF_ABSENT_SQL,
+                "Ada", "Lovelace", "ada@example.com", "0700000000", dateOfBirth);
+        verifier.check("StudentDAO.addStudentsBatch", StudentDAO.INSERT_SQL,
+                "Ada", "Lovelace", "ada@example.com", "0700000000", dateOfBirth);
+        verifier.checkBulkScan("StudentDAO.getAllStudents", StudentDAO.ALL_STUDENTS_SQL, Set.of("students"));
+        verifier.check("StudentDAO.getStudentsPage (first page)",
+                StudentDAO.studentsPageSql(false, false, false), 21);
+        verifier.check("StudentDAO.getStudentsPage (next page)",
+                StudentDAO.studentsPageSql(false, false, true), "Lovelace", "Ada", 1, 21);
+        verifier.check("StudentDAO.getStudentsPage (name filter)",
+                StudentDAO.studentsPageSql(true, false, true), "Lov%", "Lov%", "Lovelace", "Ada", 1, 21);
+        verifier.check("StudentDAO.getStudentsPage (email filter)",
+                StudentDAO.studentsPageSql(false, true, false), "ada%", 21);
+        verifier.check("StudentDAO.getStudentById", StudentDAO.STUDENT_BY_ID_SQL, 1);
+        verifier.check("StudentDAO.emailExists", StudentDAO.EMAIL_EXISTS_SQL, "ada@example.com");
+        verifier.checkBulkScan("StudentDAO.rebuildEmailFilter (count)", StudentDAO.STUDENT_COUNT_SQL,
+                Set.of("students"));
+        verifier.checkBulkScan("StudentDAO.rebuildEmailFilter (scan)", StudentDAO.ALL_EMAILS_SQL,
+                Set.of("students"));
+        verifier.check("StudentDAO.syncEmailFilter", StudentDAO.EMAILS_AFTER_ID_SQL, 1000);
+        verifier.check("StudentDAO.findExistingEmails", StudentDAO.existingEmailsSql(2),
+                "ada@example.com", "alan@example.com");
+
+        // CourseDAO
+        verifier.checkBulkScan("CourseDAO.getAllCourses", CourseDAO.ALL_COURSES_SQL, Set.of("courses"));
+        verifier.check("CourseDAO.getCourseById", CourseDAO.COURSE_BY_ID_SQL, 1);
+        verifier.check("CourseDAO.addCourse", CourseDAO.INSERT_SQL,
+                "CS101", "Introduction to Programming", 3, "Computer Science", "Fall 2024", 30);
+
+        // RegistrationDAO
+        verifier.check("RegistrationDAO.registerStudentForCourseIfAbsent",
+                RegistrationDAO.REGISTER_IF_ABSENT_SQL, 1, 1);
+        verifier.check("RegistrationDAO.insertWithSeat (take seat)", RegistrationDAO.TAKE_SEAT_SQL, 1);
+        verifier.check("RegistrationDAO.courseExists", RegistrationDAO.COURSE_EXISTS_SQL, 1);
+        verifier.check("RegistrationDAO.releaseSeats", RegistrationDAO.RELEASE_SEAT_SQL, 1);
+        verifier.checkBulkScan("RegistrationDAO.refreshSeatLedger", RegistrationDAO.COURSE_SEATS_SQL,
+                Set.of("courses"));
+        // Recount touches every course; each count seeks on idx_registrations_course
+        verifier.checkBulkScan("RegistrationDAO.recountSeats", SchemaManager.RECOUNT_SEATS_SQL, Set.of("c"));
+        verifier.check("RegistrationDAO.registerStudentForCourses (lookup)",
+                RegistrationDAO.courseLookupSql(2), 1, 1, 2);
+        verifier.check("RegistrationDAO.findExistingRegistrations",
+                RegistrationDAO.existingRegistrationsSql(2), 1, 1, 1, 2);
+        verifier.check("RegistrationDAO.registerStudentForCourses (insert)",
+                RegistrationDAO.BATCH_REGISTER_SQL, 1, 1);
+        // The report join reads every registration; students and courses are joined by key
+        verifier.checkBulkScan("RegistrationDAO.getAllRegistrationsWithDetails",
+                RegistrationDAO.REGISTRATION_DETAILS_SQL, Set.of("r", "s"));
+        verifier.check("RegistrationDAO.getCoursesForStudent", RegistrationDAO.COURSES_FOR_STUDENT_SQL, 1);
+        verifier.check("RegistrationDAO.getRegisteredCourseIds", RegistrationDAO.REGISTERED_COURSE_IDS_SQL, 1);
+        verifier.check("RegistrationDAO.isStudentRegisteredForCourse", RegistrationDAO.IS_REGISTERED_SQL, 1, 1);
+        verifier.check("RegistrationDAO.forEachRegistrationFact", RegistrationDAO.REGISTRATION_FACTS_SQL, 1000);
+        verifier.check("RegistrationDAO.reconcileEnrollmentAggregates",
+                RegistrationDAO.COURSE_REGISTRATION_COUNTS_SQL);
+        verifier.check("RegistrationDAO.countRegistrationsUpTo", RegistrationDAO.REGISTRATIONS_UP_TO_SQL, 1000);
+        verifier.checkBulkScan("RegistrationDAO.rebuildEnrollmentIndex", RegistrationDAO.ALL_ENROLLMENTS_SQL,
+                Set.of("registrations"));
+
+        verifier.check("RegistrationDAO.dropRegistration", RegistrationDAO.DROP_SQL, 1, 1);
+
+        // WaitlistDAO
+        verifier.check("WaitlistDAO.joinWaitlist", WaitlistDAO.JOIN_SQL, 1, 1, 1);
+        verifier.check("WaitlistDAO.joinWaitlist (read back)", WaitlistDAO.ENTRY_BY_ID_SQL, 1);
+        verifier.check("WaitlistDAO.leaveWaitlist", WaitlistDAO.LEAVE_SQL, 1, 1);
+        verifier.check("WaitlistPromoter.promote (delete)", WaitlistDAO.DELETE_BY_ID_SQL, 1);
+        verifier.checkBulkScan("WaitlistDAO.reloadWaitlists", WaitlistDAO.ALL_ENTRIES_SQL, Set.of("waitlist"));
+
+        // SnapshotDAO copies whole tables
+        verifier.checkBulkScan("SnapshotDAO.exportTo (students)", SnapshotDAO.SNAPSHOT_STUDENTS_SQL,
+                Set.of("students"));
+        verifier.checkBulkScan("SnapshotDAO.exportTo (registrations)", SnapshotDAO.SNAPSHOT_REGISTRATIONS_SQL,
+                Set.of("registrations"));
+
+        // StatisticsDAO aggregates over all registrations
+        verifier.checkBulkScan("StatisticsDAO.getRegistrationStatistics",
+                StatisticsDAO.REGISTRATION_STATISTICS_SQL, Set.of("r", "c"));
+
+        return verifier;
+    }
+}
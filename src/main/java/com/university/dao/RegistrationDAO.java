@@ -1,19 +1,174 @@
 package com.university.dao;
 
+import com.university.cache.EnrollmentAggregates;
+import com.university.cache.EnrollmentIndex;
+import com.university.cache.SeatLedger;
 import com.university.database.DatabaseConnection;
+import com.university.database.SchemaManager;
+import com.university.database.UnitOfWork;
+import com.university.journal.ChangeJournal;
+import com.university.journal.ChangeType;
 import com.university.model.Course;
 import com.university.model.Registration;
-import com.university.model.Student;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object for Registration operations
  * Handles all database operations related to student-course registrations
+ * Per-student lookups are answered from an in-memory EnrollmentIndex once it is loaded,
+ * and per-course totals from EnrollmentAggregates.
+ * Every registration takes a seat with a guarded update of courses.seats_taken in the
+ * same transaction as its insert, so a course is never oversold; a SeatLedger in memory
+ * turns attempts on full courses away before they reach the database.
  */
 public class RegistrationDAO {
+    /** Default number of rows fetched per round trip when streaming reports */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    static final String REGISTRATION_DETAILS_SQL = """
+            SELECT r.registration_id, r.student_id, r.course_id, r.enrollment_date, r.grade,
+                   s.first_name, s.last_name, s.email, s.phone, s.date_of_birth, s.registration_date,
+                   c.course_code, c.course_name, c.credits, c.department, c.semester
+            FROM registrations r
+            INNER JOIN students s ON r.student_id = s.student_id
+            INNER JOIN courses c ON r.course_id = c.course_id
+            ORDER BY s.last_name, s.first_name, s.student_id, c.course_code
+            """;
+
+    static final String REGISTER_IF_ABSENT_SQL = "INSERT INTO registrations (student_id, course_id) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE registration_id = LAST_INSERT_ID(registration_id)";
+    // Batches skip pairs found by findExistingRegistrations(); the no-op update only keeps a
+    // registration made outside this application from failing the whole batch
+    static final String BATCH_REGISTER_SQL = "INSERT INTO registrations (student_id, course_id) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE registration_id = registration_id";
+    static final String COURSES_FOR_STUDENT_SQL = """
+            SELECT c.course_id, c.course_code, c.course_name, c.credits, c.department, c.semester
+            FROM registrations r
+            INNER JOIN courses c ON r.course_id = c.course_id
+            WHERE r.student_id = ?
+            ORDER BY c.course_code
+            """;
+    static final String REGISTERED_COURSE_IDS_SQL = "SELECT course_id FROM registrations WHERE student_id = ?";
+    static final String IS_REGISTERED_SQL = "SELECT COUNT(*) FROM registrations WHERE student_id = ? AND course_id = ?";
+    static final String ALL_ENROLLMENTS_SQL = "SELECT student_id, course_id FROM registrations";
+    static final String REGISTRATIONS_UP_TO_SQL = "SELECT COUNT(*) FROM registrations WHERE registration_id <= ?";
+    static final String REGISTRATION_FACTS_SQL = """
+            SELECT r.registration_id, r.student_id, r.course_id, c.credits, c.department, c.semester,
+                   r.enrollment_date
+            FROM registrations r
+            INNER JOIN courses c ON r.course_id = c.course_id
+            WHERE r.registration_id > ?
+            ORDER BY r.registration_id
+            """;
+    static final String COURSE_REGISTRATION_COUNTS_SQL =
+            "SELECT course_id, COUNT(*) FROM registrations GROUP BY course_id";
+    static final String TAKE_SEAT_SQL = "UPDATE courses SET seats_taken = seats_taken + 1 "
+            + "WHERE course_id = ? AND (capacity IS NULL OR seats_taken < capacity)";
+    static final String COURSE_EXISTS_SQL = "SELECT 1 FROM courses WHERE course_id = ?";
+    static final String RELEASE_SEAT_SQL =
+            "UPDATE courses SET seats_taken = seats_taken - 1 WHERE course_id = ? AND seats_taken > 0";
+    static final String DROP_SQL = "DELETE FROM registrations WHERE student_id = ? AND course_id = ?";
+    static final String COURSE_SEATS_SQL =
+            "SELECT course_id, capacity, seats_taken FROM courses WHERE capacity IS NOT NULL";
+
+    private static final List<RegistrationListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // Student-course graph served from memory; kept current through a registration listener
+    private static final EnrollmentIndex ENROLLMENT_INDEX = new EnrollmentIndex();
+    private static volatile boolean enrollmentIndexLoaded = false;
+    private static volatile EnrollmentIndex.Builder pendingEnrollments;
+
+    // Per-course, department and semester counters; reconciled against the database periodically
+    private static final EnrollmentAggregates ENROLLMENT_AGGREGATES = new EnrollmentAggregates();
+    private static final long AGGREGATE_RECONCILE_SECONDS = Long.getLong("aggregates.reconcileSeconds", 300);
+    private static final CourseDAO CATALOGUE = new CourseDAO();
+    private static volatile boolean aggregatesLoaded = false;
+    private static ScheduledExecutorService aggregateReconciler;
+
+    // Free seats on limited courses; the database guard in TAKE_SEAT_SQL has the final say
+    private static final SeatLedger SEAT_LEDGER = new SeatLedger();
+    private static volatile boolean seatLedgerLoaded = false;
+
+    static {
+        addRegistrationListener(new RegistrationListener() {
+            @Override
+            public void onRegistered(int studentId, int courseId) {
+                ENROLLMENT_INDEX.add(studentId, courseId);
+                EnrollmentIndex.Builder pending = pendingEnrollments;
+                if (pending != null) {
+                    pending.add(studentId, courseId);
+                }
+            }
+
+            @Override
+            public void onDropped(int studentId, int courseId) {
+                // A rebuild running now may still pick the row up; the next rebuild drops it
+                ENROLLMENT_INDEX.remove(studentId, courseId);
+            }
+        });
+        addRegistrationListener(new RegistrationListener() {
+            @Override
+            public void onRegistered(int studentId, int courseId) {
+                ChangeJournal.record(ChangeType.REGISTRATION_ADDED, studentId, courseId);
+            }
+
+            @Override
+            public void onDropped(int studentId, int courseId) {
+                ChangeJournal.record(ChangeType.REGISTRATION_DROPPED, studentId, courseId);
+            }
+        });
+        addRegistrationListener(new RegistrationListener() {
+            @Override
+            public void onRegistered(int studentId, int courseId) {
+                Course course = CATALOGUE.getCourseById(courseId);
+                if (course != null) {
+                    ENROLLMENT_AGGREGATES.increment(course);
+                }
+            }
+
+            @Override
+            public void onDropped(int studentId, int courseId) {
+                Course course = CATALOGUE.getCourseById(courseId);
+                if (course != null) {
+                    ENROLLMENT_AGGREGATES.add(course, -1);
+                }
+            }
+        });
+    }
+
+    // Optional write-behind mode: -Dregistration.writeBehind=true
+    private static final RegistrationWriteBehind WRITE_BEHIND = Boolean.getBoolean("registration.writeBehind")
+            ? new RegistrationWriteBehind(
+                    Integer.getInteger("registration.writeBehind.capacity", 10_000),
+                    Integer.getInteger("registration.writeBehind.batchSize", 500),
+                    Long.getLong("registration.writeBehind.maxDelayMillis", 50),
+                    Long.getLong("registration.writeBehind.offerTimeoutMillis", 100),
+                    RegistrationDAO::reportFailedRegistration)
+            : null;
+    private static volatile RegistrationFailureListener failureListener;
+
+    private final CourseDAO courseDAO = new CourseDAO();
 
     /**
      * Register a student for a course
@@ -22,127 +177,579 @@ public class RegistrationDAO {
      * @return true if registration successful, false otherwise
      */
     public boolean registerStudentForCourse(int studentId, int courseId) {
-        String sql = "INSERT INTO registrations (student_id, course_id) VALUES (?, ?)";
+        InsertResult result = registerStudentForCourseIfAbsent(studentId, courseId);
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        if (result.isCreated()) {
+            System.out.println("✅ Student registered for course successfully!");
+            return true;
+        }
+        if (result.isAlreadyExists()) {
+            System.err.println("❌ Student is already registered for this course!");
+        } else if (result.isRejected()) {
+            System.err.println("❌ Course is full!");
+        } else if (result.isNotFound()) {
+            System.err.println("❌ Course not found!");
+        }
+        return false;
+    }
 
-            pstmt.setInt(1, studentId);
-            pstmt.setInt(2, courseId);
+    /**
+     * Register a student for a course, relying on the unique (student_id, course_id) key
+     * instead of a separate existence check.
+     * A seat is reserved in the seat ledger first, so attempts on a full course never
+     * reach the database; the registration itself is written by insertWithSeat().
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return CREATED with the new registration ID, ALREADY_EXISTS with the existing one,
+     *         REJECTED if the course is full, NOT_FOUND if it does not exist, or FAILED
+     */
+    public InsertResult registerStudentForCourseIfAbsent(int studentId, int courseId) {
+        SeatLedger seats = getSeatLedger();
+        if (!seats.tryReserve(courseId)) {
+            return InsertResult.rejected();
+        }
+
+        InsertResult result = InsertResult.failed();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn != null) {
+                result = insertWithSeat(conn, studentId, courseId);
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error registering student for course: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        if (result.isCreated()) {
+            registered(studentId, courseId);
+        } else if (result.isRejected()) {
+            // Only a seat update that found the course row proves the course is full
+            seats.exhaust(courseId);
+        } else {
+            seats.release(courseId);
+        }
+        return result;
+    }
 
-            int affectedRows = pstmt.executeUpdate();
+    /**
+     * Take a seat and insert a registration in one transaction; listeners are not notified.
+     * The seat update runs first, so the course row is locked before the insert's foreign
+     * key check reads it; the other order lets two registrations deadlock on the upgrade.
+     * A duplicate does not raise an error: the no-op update sets LAST_INSERT_ID to the
+     * existing registration and changes nothing, so with useAffectedRows=true (set in
+     * DatabaseConnection) the update count is 0, and the seat is rolled back.
+     * @param conn Connection to use; left with auto-commit off
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return CREATED, ALREADY_EXISTS, REJECTED if the course has no seat left,
+     *         or NOT_FOUND if there is no such course
+     * @throws SQLException if a statement failed; the transaction is rolled back
+     */
+    static InsertResult insertWithSeat(Connection conn, int studentId, int courseId) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement takeSeat = conn.prepareStatement(TAKE_SEAT_SQL);
+             PreparedStatement insert = conn.prepareStatement(REGISTER_IF_ABSENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            if (affectedRows > 0) {
-                System.out.println("✅ Student registered for course successfully!");
-                return true;
+            takeSeat.setInt(1, courseId);
+            if (takeSeat.executeUpdate() == 0) {
+                boolean known = courseExists(conn, courseId);
+                conn.rollback();
+                return known ? InsertResult.rejected() : InsertResult.notFound();
             }
 
-        } catch (SQLException e) {
-            if (e.getErrorCode() == 1062) { // Duplicate entry error
-                System.err.println("❌ Student is already registered for this course!");
+            insert.setInt(1, studentId);
+            insert.setInt(2, courseId);
+            InsertResult result = InsertResults.fromUpsert(conn, insert, insert.executeUpdate());
+            if (result.isCreated()) {
+                conn.commit();
             } else {
-                System.err.println("❌ Error registering student for course: " + e.getMessage());
-                e.printStackTrace();
+                conn.rollback();
             }
+            return result;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
         }
+    }
 
-        return false;
+    /**
+     * Tell a full course from a missing one after TAKE_SEAT_SQL updated no row
+     * @param conn Connection to use
+     * @param courseId Course ID
+     * @return true if the course exists
+     */
+    static boolean courseExists(Connection conn, int courseId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(COURSE_EXISTS_SQL)) {
+            pstmt.setInt(1, courseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Register a student for a course, through the write-behind queue when it is enabled.
+     * Queued registrations are checked against the course catalogue, the enrollment index
+     * and the queue itself, then written in the background; a registration that later
+     * fails is reported to the failure listener. Without the queue this is the same as
+     * registerStudentForCourseIfAbsent.
+     * A queued registration holds its seat in the seat ledger until it is written,
+     * and is not part of the caller's UnitOfWork.
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return QUEUED or INSERTED if accepted; ALREADY_REGISTERED, UNKNOWN_COURSE, COURSE_FULL,
+     *         QUEUE_FULL or FAILED if not
+     */
+    public RegistrationOutcome submitRegistration(int studentId, int courseId) {
+        if (courseDAO.getCourseById(courseId) == null) {
+            return RegistrationOutcome.UNKNOWN_COURSE;
+        }
+
+        RegistrationWriteBehind queue = WRITE_BEHIND;
+        if (queue == null) {
+            InsertResult result = registerStudentForCourseIfAbsent(studentId, courseId);
+            if (result.isCreated()) {
+                return RegistrationOutcome.INSERTED;
+            }
+            if (result.isAlreadyExists()) {
+                return RegistrationOutcome.ALREADY_REGISTERED;
+            }
+            if (result.isNotFound()) {
+                return RegistrationOutcome.UNKNOWN_COURSE;
+            }
+            return result.isRejected() ? RegistrationOutcome.COURSE_FULL : RegistrationOutcome.FAILED;
+        }
+
+        if (enrollmentIndexLoaded && ENROLLMENT_INDEX.contains(studentId, courseId)) {
+            return RegistrationOutcome.ALREADY_REGISTERED;
+        }
+        SeatLedger seats = getSeatLedger();
+        if (!seats.tryReserve(courseId)) {
+            return RegistrationOutcome.COURSE_FULL;
+        }
+        RegistrationOutcome outcome = queue.submit(studentId, courseId);
+        if (outcome != RegistrationOutcome.QUEUED) {
+            seats.release(courseId);
+        }
+        return outcome;
+    }
+
+    /**
+     * @return Write-behind queue, or null if registrations are written synchronously
+     */
+    public static RegistrationWriteBehind getWriteBehind() {
+        return WRITE_BEHIND;
+    }
+
+    /**
+     * Replace the default failure report (a console message) for queued registrations
+     * @param listener Listener, or null for the default
+     */
+    public static void setRegistrationFailureListener(RegistrationFailureListener listener) {
+        failureListener = listener;
+    }
+
+    /**
+     * Write out all queued registrations and stop accepting new ones; call before closing the pool
+     * @return true if the queue is disabled or was fully written
+     */
+    public static boolean shutdownWriteBehind() {
+        if (WRITE_BEHIND == null) {
+            return true;
+        }
+        int queued = WRITE_BEHIND.getQueuedCount();
+        boolean drained = WRITE_BEHIND.close(TimeUnit.SECONDS.toMillis(30));
+        if (!drained) {
+            System.err.println("⚠️ Timed out writing " + WRITE_BEHIND.getQueuedCount() + " queued registrations.");
+        } else if (queued > 0) {
+            System.out.println("✅ Wrote " + queued + " queued registrations.");
+        }
+        return drained;
+    }
+
+    private static void reportFailedRegistration(int studentId, int courseId, RegistrationOutcome outcome,
+                                                 SQLException cause) {
+        RegistrationFailureListener listener = failureListener;
+        if (listener != null) {
+            listener.onRegistrationFailed(studentId, courseId, outcome, cause);
+            return;
+        }
+        System.err.println("❌ Queued registration of student " + studentId + " for course " + courseId + " "
+                + outcome.getDescription() + (cause != null ? ": " + cause.getMessage() : ""));
+    }
+
+    /**
+     * Register a student for several courses in one transaction.
+     * Course existence and existing registrations are looked up with a single query,
+     * seats are taken with one batch of guarded updates, registrations made concurrently
+     * since the lookup are found again under the seat locks and give their seats back,
+     * then all new registrations are inserted as one JDBC batch and committed once.
+     * @param studentId Student ID
+     * @param courseIds Course IDs to register; duplicates are ignored
+     * @return Outcome per requested course ID, in request order
+     */
+    public Map<Integer, RegistrationOutcome> registerStudentForCourses(int studentId, List<Integer> courseIds) {
+        Set<Integer> requested = new LinkedHashSet<>(courseIds);
+        Map<Integer, RegistrationOutcome> outcomes = new LinkedHashMap<>();
+        if (requested.isEmpty()) {
+            return outcomes;
+        }
+        SeatLedger seats = getSeatLedger();
+        List<Integer> reserved = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                // No seat has been reserved yet
+                for (Integer courseId : requested) {
+                    outcomes.put(courseId, RegistrationOutcome.FAILED);
+                }
+                return outcomes;
+            }
+            conn.setAutoCommit(false);
+            try {
+                // Step 1: classify every requested course in one round trip
+                for (Integer courseId : requested) {
+                    outcomes.put(courseId, RegistrationOutcome.UNKNOWN_COURSE);
+                }
+                try (PreparedStatement lookup = conn.prepareStatement(courseLookupSql(requested.size()))) {
+                    lookup.setInt(1, studentId);
+                    InClause.bindInts(lookup, 2, requested);
+                    try (ResultSet rs = lookup.executeQuery()) {
+                        while (rs.next()) {
+                            int courseId = rs.getInt("course_id");
+                            rs.getInt("registration_id");
+                            outcomes.put(courseId, rs.wasNull()
+                                    ? RegistrationOutcome.INSERTED
+                                    : RegistrationOutcome.ALREADY_REGISTERED);
+                        }
+                    }
+                }
+
+                // Step 2: take a seat on every new course, in course ID order so that
+                // concurrent batches lock course rows in the same order
+                for (Map.Entry<Integer, RegistrationOutcome> entry : outcomes.entrySet()) {
+                    if (entry.getValue() == RegistrationOutcome.INSERTED) {
+                        if (seats.tryReserve(entry.getKey())) {
+                            reserved.add(entry.getKey());
+                        } else {
+                            entry.setValue(RegistrationOutcome.COURSE_FULL);
+                        }
+                    }
+                }
+                reserved.sort(null);
+
+                List<Integer> toInsert = new ArrayList<>(reserved.size());
+                if (!reserved.isEmpty()) {
+                    try (PreparedStatement takeSeat = conn.prepareStatement(TAKE_SEAT_SQL)) {
+                        for (Integer courseId : reserved) {
+                            takeSeat.setInt(1, courseId);
+                            takeSeat.addBatch();
+                        }
+                        int[] taken = takeSeat.executeBatch();
+                        for (int i = 0; i < reserved.size(); i++) {
+                            if (i < taken.length && taken[i] == 0) {
+                                outcomes.put(reserved.get(i), RegistrationOutcome.COURSE_FULL);
+                            } else {
+                                toInsert.add(reserved.get(i));
+                            }
+                        }
+                    }
+                }
+
+                // Step 3: give back the seats of courses registered concurrently by another
+                // session since the lookup, then insert the rest as one batch
+                List<Long> keys = new ArrayList<>(toInsert.size());
+                for (Integer courseId : toInsert) {
+                    keys.add(registrationKey(studentId, courseId));
+                }
+                Set<Long> existing = findExistingRegistrations(conn, keys);
+                List<Integer> duplicates = new ArrayList<>();
+                for (Integer courseId : toInsert) {
+                    if (existing.contains(registrationKey(studentId, courseId))) {
+                        outcomes.put(courseId, RegistrationOutcome.ALREADY_REGISTERED);
+                        duplicates.add(courseId);
+                    }
+                }
+                toInsert.removeAll(duplicates);
+                releaseSeats(conn, duplicates);
+
+                if (!toInsert.isEmpty()) {
+                    try (PreparedStatement insert = conn.prepareStatement(BATCH_REGISTER_SQL)) {
+                        for (Integer courseId : toInsert) {
+                            insert.setInt(1, studentId);
+                            insert.setInt(2, courseId);
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                }
+
+                conn.commit();
+                int added = 0;
+                for (Map.Entry<Integer, RegistrationOutcome> entry : outcomes.entrySet()) {
+                    if (entry.getValue() == RegistrationOutcome.INSERTED) {
+                        registered(studentId, entry.getKey());
+                        added++;
+                    }
+                }
+                System.out.println("✅ Batch registration completed: " + added + " course(s) "
+                        + (UnitOfWork.isActive() ? "written, pending commit." : "added."));
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error registering student for courses: " + e.getMessage());
+            e.printStackTrace();
+            outcomes.replaceAll((courseId, outcome) ->
+                    outcome == RegistrationOutcome.INSERTED ? RegistrationOutcome.FAILED : outcome);
+        }
+
+        for (Integer courseId : reserved) {
+            RegistrationOutcome outcome = outcomes.get(courseId);
+            if (outcome == RegistrationOutcome.COURSE_FULL) {
+                seats.exhaust(courseId);
+            } else if (outcome != RegistrationOutcome.INSERTED) {
+                seats.release(courseId);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Drop a student's registration for a course and give up its seat in one transaction.
+     * The seat goes to the first eligible student on the course's waitlist, promoted in
+     * the next waitlist batch, or back to general registration if nobody is waiting.
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return true if the registration existed and was dropped
+     */
+    public boolean dropRegistration(int studentId, int courseId) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement drop = conn.prepareStatement(DROP_SQL)) {
+                drop.setInt(1, studentId);
+                drop.setInt(2, courseId);
+                if (drop.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                releaseSeats(conn, List.of(courseId));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error dropping registration: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        UnitOfWork.afterCommit(() -> {
+            fireDropped(studentId, courseId);
+            WaitlistDAO.seatFreed(courseId);
+        });
+        return true;
+    }
+
+    /**
+     * Give back seats in the current transaction, e.g. of registrations that turned out to exist already
+     * @param conn Connection with the open transaction
+     * @param courseIds One course ID per seat to give back
+     */
+    static void releaseSeats(Connection conn, List<Integer> courseIds) throws SQLException {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement release = conn.prepareStatement(RELEASE_SEAT_SQL)) {
+            for (Integer courseId : courseIds) {
+                release.setInt(1, courseId);
+                release.addBatch();
+            }
+            release.executeBatch();
+        }
     }
 
     /**
      * Get all registrations with student and course details using SQL JOIN
+     * Each student and course is materialised once and shared by all of its registrations
      * @return List of Registration objects with populated Student and Course data
      */
     public List<Registration> getAllRegistrationsWithDetails() {
         List<Registration> registrations = new ArrayList<>();
 
-        String sql = """
-                SELECT r.registration_id, r.student_id, r.course_id, r.enrollment_date, r.grade,
-                       s.first_name, s.last_name, s.email, s.phone, s.date_of_birth, s.registration_date,
-                       c.course_code, c.course_name, c.credits, c.department, c.semester
-                FROM registrations r
-                INNER JOIN students s ON r.student_id = s.student_id
-                INNER JOIN courses c ON r.course_id = c.course_id
-                ORDER BY s.last_name, s.first_name, c.course_code
-                """;
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement pstmt = conn.prepareStatement(REGISTRATION_DETAILS_SQL);
              ResultSet rs = pstmt.executeQuery()) {
 
+            RegistrationRowMapper mapper = new RegistrationRowMapper(true);
             while (rs.next()) {
-                Registration registration = new Registration();
-                registration.setRegistrationId(rs.getInt("registration_id"));
-                registration.setStudentId(rs.getInt("student_id"));
-                registration.setCourseId(rs.getInt("course_id"));
+                registrations.add(mapper.map(rs));
+            }
 
-                Timestamp enrollmentTimestamp = rs.getTimestamp("enrollment_date");
-                if (enrollmentTimestamp != null) {
-                    registration.setEnrollmentDate(enrollmentTimestamp.toLocalDateTime());
-                }
+        } catch (SQLException e) {
+            System.err.println("❌ Error retrieving registrations: " + e.getMessage());
+            e.printStackTrace();
+        }
 
-                registration.setGrade(rs.getString("grade"));
+        return registrations;
+    }
 
-                // Create and populate Student object
-                Student student = new Student();
-                student.setStudentId(rs.getInt("student_id"));
-                student.setFirstName(rs.getString("first_name"));
-                student.setLastName(rs.getString("last_name"));
-                student.setEmail(rs.getString("email"));
-                student.setPhone(rs.getString("phone"));
+    /**
+     * Stream all registrations with student and course details without loading them into memory.
+     * Rows are read through a forward-only, read-only cursor in chunks of fetchSize,
+     * so the stream holds a pooled connection until it is closed.
+     * Always use the returned stream in a try-with-resources block.
+     * A read that fails part way through throws IllegalStateException from the stream.
+     * @param fetchSize Rows fetched from the server per round trip
+     * @return Stream of Registration objects with populated Student and Course data
+     */
+    public Stream<Registration> streamAllRegistrationsWithDetails(int fetchSize) {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            return Stream.empty();
+        }
 
-                Date dobDate = rs.getDate("date_of_birth");
-                if (dobDate != null) {
-                    student.setDateOfBirth(dobDate.toLocalDate());
-                }
+        try {
+            PreparedStatement pstmt = conn.prepareStatement(REGISTRATION_DETAILS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            ResultSet rs = pstmt.executeQuery();
+            RegistrationRowMapper mapper = new RegistrationRowMapper(false);
 
-                Timestamp regTimestamp = rs.getTimestamp("registration_date");
-                if (regTimestamp != null) {
-                    student.setRegistrationDate(regTimestamp.toLocalDateTime());
+            Spliterator<Registration> rows = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Registration> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        // Ending the stream here would pass a truncated result off as complete
+                        throw new IllegalStateException("Error streaming registrations: " + e.getMessage(), e);
+                    }
                 }
+            };
 
-                registration.setStudent(student);
+            return StreamSupport.stream(rows, false)
+                    .onClose(() -> closeCursor(rs, pstmt, conn));
 
-                // Create and populate Course object
-                Course course = new Course();
-                course.setCourseId(rs.getInt("course_id"));
-                course.setCourseCode(rs.getString("course_code"));
-                course.setCourseName(rs.getString("course_name"));
-                course.setCredits(rs.getInt("credits"));
-                course.setDepartment(rs.getString("department"));
-                course.setSemester(rs.getString("semester"));
+        } catch (SQLException e) {
+            System.err.println("❌ Error retrieving registrations: " + e.getMessage());
+            e.printStackTrace();
+            closeCursor(null, null, conn);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Visit all registrations with student and course details in constant memory
+     * @param fetchSize Rows fetched from the server per round trip
+     * @param visitor Called once per registration, in report order
+     */
+    public void forEachRegistrationWithDetails(int fetchSize, Consumer<Registration> visitor) {
+        try (Stream<Registration> registrations = streamAllRegistrationsWithDetails(fetchSize)) {
+            registrations.forEach(visitor);
+        }
+    }
 
-                registration.setCourse(course);
+    /**
+     * Stream registrations newer than a given ID as primitive facts, in registration ID order.
+     * Used to build and incrementally extend analytics snapshots; seeks on the primary key,
+     * so reading only the new rows costs the same however large the table is.
+     * @param afterRegistrationId Only registrations with a greater ID are read; 0 for all
+     * @param fetchSize Rows fetched from the server per round trip
+     * @param consumer Receives one call per registration
+     * @return Number of registrations read, or -1 if the query failed
+     */
+    public long forEachRegistrationFact(int afterRegistrationId, int fetchSize, RegistrationFactConsumer consumer) {
+        long rows = 0;
 
-                registrations.add(registration);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return -1;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(REGISTRATION_FACTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setInt(1, afterRegistrationId);
+                pstmt.setFetchSize(fetchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp enrolledAt = rs.getTimestamp(7);
+                        consumer.accept(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                                rs.getString(5), rs.getString(6),
+                                enrolledAt != null ? enrolledAt.toInstant().getEpochSecond() : Long.MIN_VALUE);
+                        rows++;
+                    }
+                }
             }
 
         } catch (SQLException e) {
-            System.err.println("❌ Error retrieving registrations: " + e.getMessage());
+            System.err.println("❌ Error reading registration facts: " + e.getMessage());
             e.printStackTrace();
+            return -1;
         }
 
-        return registrations;
+        return rows;
     }
 
     /**
-     * Get courses registered by a specific student
+     * Get courses registered by a specific student, ordered by course code.
+     * Served from the enrollment index and the course catalogue when the index is loaded.
      * @param studentId Student ID
      * @return List of courses the student is registered for
      */
     public List<Course> getCoursesForStudent(int studentId) {
-        List<Course> courses = new ArrayList<>();
+        EnrollmentIndex index = getEnrollmentIndex();
+        if (index == null) {
+            return queryCoursesForStudent(studentId);
+        }
+
+        int[] courseIds = index.getCourseIds(studentId);
+        List<Course> courses = new ArrayList<>(courseIds.length);
+        for (int courseId : courseIds) {
+            Course course = courseDAO.getCourseById(courseId);
+            if (course != null) {
+                courses.add(course);
+            }
+        }
+        courses.sort(Comparator.comparing(Course::getCourseCode));
+        return courses;
+    }
+
+    /**
+     * Get the total credit hours a student is registered for
+     * @param studentId Student ID
+     * @return Sum of the credits of the student's courses
+     */
+    public int getTotalCredits(int studentId) {
+        int total = 0;
+        for (Course course : getCoursesForStudent(studentId)) {
+            total += course.getCredits();
+        }
+        return total;
+    }
 
-        String sql = """
-                SELECT c.course_id, c.course_code, c.course_name, c.credits, c.department, c.semester
-                FROM registrations r
-                INNER JOIN courses c ON r.course_id = c.course_id
-                WHERE r.student_id = ?
-                ORDER BY c.course_code
-                """;
+    /**
+     * Get courses registered by a specific student with a database query
+     * @param studentId Student ID
+     * @return List of courses the student is registered for
+     */
+    private List<Course> queryCoursesForStudent(int studentId) {
+        List<Course> courses = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(COURSES_FOR_STUDENT_SQL)) {
 
             pstmt.setInt(1, studentId);
             ResultSet rs = pstmt.executeQuery();
@@ -167,6 +774,37 @@ public class RegistrationDAO {
         return courses;
     }
 
+    /**
+     * Get the IDs of all courses a student is registered for in a single query
+     * @param studentId Student ID
+     * @return Bit set with one bit set per registered course ID
+     */
+    public BitSet getRegisteredCourseIds(int studentId) {
+        BitSet courseIds = new BitSet();
+        EnrollmentIndex index = getEnrollmentIndex();
+        if (index != null) {
+            index.forEachCourse(studentId, courseIds::set);
+            return courseIds;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(REGISTERED_COURSE_IDS_SQL)) {
+
+            pstmt.setInt(1, studentId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                courseIds.set(rs.getInt(1));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error retrieving registered course IDs: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return courseIds;
+    }
+
     /**
      * Check if student is already registered for a course
      * @param studentId Student ID
@@ -174,10 +812,13 @@ public class RegistrationDAO {
      * @return true if already registered, false otherwise
      */
     public boolean isStudentRegisteredForCourse(int studentId, int courseId) {
-        String sql = "SELECT COUNT(*) FROM registrations WHERE student_id = ? AND course_id = ?";
+        EnrollmentIndex index = getEnrollmentIndex();
+        if (index != null) {
+            return index.contains(studentId, courseId);
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(IS_REGISTERED_SQL)) {
 
             pstmt.setInt(1, studentId);
             pstmt.setInt(2, courseId);
@@ -194,4 +835,413 @@ public class RegistrationDAO {
 
         return false;
     }
+
+    /**
+     * Register a listener for registrations written or dropped through this DAO
+     * @param listener Listener, called after each committed registration or drop
+     */
+    public static void addRegistrationListener(RegistrationListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Get the enrollment index, building it with one scan on first use
+     * @return Loaded index, or null if it could not be built
+     */
+    public static EnrollmentIndex getEnrollmentIndex() {
+        if (!enrollmentIndexLoaded) {
+            rebuildEnrollmentIndex();
+        }
+        return enrollmentIndexLoaded ? ENROLLMENT_INDEX : null;
+    }
+
+    /**
+     * Rebuild the enrollment index from a streaming scan of all registrations, e.g. after
+     * registrations were changed by another process. Registrations written through this
+     * DAO while the scan runs are recorded as well.
+     * @return true if the index was rebuilt, false if the scan failed (the old index stays in use)
+     */
+    public static synchronized boolean rebuildEnrollmentIndex() {
+        EnrollmentIndex.Builder builder = EnrollmentIndex.builder();
+        pendingEnrollments = builder;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(ALL_ENROLLMENTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(DEFAULT_FETCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        builder.add(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+
+            ENROLLMENT_INDEX.replace(builder);
+            enrollmentIndexLoaded = true;
+            System.out.println("✅ Enrollment index built for " + ENROLLMENT_INDEX.getRegistrationCount()
+                    + " registrations.");
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error building enrollment index: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            pendingEnrollments = null;
+        }
+        return false;
+    }
+
+    /**
+     * Get the seat ledger, loading every limited course's free seats on first use
+     * @return Seat ledger; empty, so that the database decides alone, if it could not be loaded
+     */
+    public static SeatLedger getSeatLedger() {
+        if (!seatLedgerLoaded) {
+            refreshSeatLedger(false);
+        }
+        return SEAT_LEDGER;
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Free seats as far as this process knows, or -1 if the course has no limit
+     */
+    public static int getAvailableSeats(int courseId) {
+        return getSeatLedger().getAvailable(courseId);
+    }
+
+    /**
+     * Reload capacities and seats taken from the database into the seat ledger.
+     * Seats reserved by registrations still in flight are counted as free again until
+     * they commit; the database guard turns away the extra attempts this lets through.
+     * @param verbose false to print nothing unless the query fails
+     * @return true if the ledger was reloaded
+     */
+    public static synchronized boolean refreshSeatLedger(boolean verbose) {
+        Map<Integer, Integer> capacities = new HashMap<>();
+        Map<Integer, Integer> seatsTaken = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(COURSE_SEATS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    capacities.put(rs.getInt(1), rs.getInt(2));
+                    seatsTaken.put(rs.getInt(1), rs.getInt(3));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading course seats: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        SEAT_LEDGER.resetAll(capacities, seatsTaken);
+        seatLedgerLoaded = true;
+        if (verbose) {
+            System.out.println("✅ Seat ledger loaded: " + SEAT_LEDGER.getLimitedCourseCount()
+                    + " courses with a capacity, " + SEAT_LEDGER.getFullCourseCount() + " full.");
+        }
+        return true;
+    }
+
+    /**
+     * Recount seats taken on every course from its registrations, then reload the seat ledger;
+     * repairs counts after registrations were changed outside this application
+     * @return true if the seats were recounted
+     */
+    public static boolean recountSeats() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SchemaManager.RECOUNT_SEATS_SQL)) {
+                // Affected rows: only courses whose count was wrong
+                int corrected = pstmt.executeUpdate();
+                System.out.println("✅ Seats recounted; " + corrected + " courses corrected.");
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error recounting course seats: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+        return refreshSeatLedger(true);
+    }
+
+    /**
+     * Give back a seat held in the ledger by a registration that was not written
+     */
+    static void releaseSeat(int courseId) {
+        SEAT_LEDGER.release(courseId);
+    }
+
+    /**
+     * Record that the database found a course full
+     */
+    static void markCourseFull(int courseId) {
+        SEAT_LEDGER.exhaust(courseId);
+    }
+
+    /**
+     * Get the enrollment aggregates, counting registrations per course on first use
+     * @return Loaded aggregates, or null if they could not be counted
+     */
+    public static EnrollmentAggregates getEnrollmentAggregates() {
+        if (!aggregatesLoaded) {
+            reconcileEnrollmentAggregates();
+        }
+        return aggregatesLoaded ? ENROLLMENT_AGGREGATES : null;
+    }
+
+    /**
+     * Count registrations per course in the database and correct the aggregates to match.
+     * The first successful call also schedules a background reconcile, which reloads
+     * the seat ledger as well, every aggregates.reconcileSeconds (default 300, 0 to disable).
+     * @return true if the aggregates were reconciled, false if the count failed
+     */
+    public static boolean reconcileEnrollmentAggregates() {
+        return reconcileEnrollmentAggregates(true);
+    }
+
+    /**
+     * @param verbose false to print nothing unless the count fails, e.g. from a background thread
+     * @return true if the aggregates were reconciled, false if the count failed
+     */
+    public static synchronized boolean reconcileEnrollmentAggregates(boolean verbose) {
+        Map<Integer, Long> before = ENROLLMENT_AGGREGATES.snapshotCourseCounts();
+        Map<Integer, Long> counted = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(COURSE_REGISTRATION_COUNTS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counted.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error counting registrations per course: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        int corrected = ENROLLMENT_AGGREGATES.reconcile(counted, before, CATALOGUE::getCourseById);
+        if (verbose) {
+            System.out.println("✅ Enrollment aggregates reconciled: " + ENROLLMENT_AGGREGATES.getTotal()
+                    + " registrations, " + corrected + " course counts corrected.");
+        }
+        markAggregatesLoaded();
+        return true;
+    }
+
+    /**
+     * Load the enrollment aggregates from counts read elsewhere, e.g. a warm-start snapshot
+     * @param courseCounts Registrations per course ID
+     */
+    public static synchronized void seedEnrollmentAggregates(Map<Integer, Long> courseCounts) {
+        ENROLLMENT_AGGREGATES.reconcile(courseCounts, ENROLLMENT_AGGREGATES.snapshotCourseCounts(),
+                CATALOGUE::getCourseById);
+        markAggregatesLoaded();
+    }
+
+    /**
+     * Start serving the aggregates and schedule the background reconcile; called holding the class lock
+     */
+    private static void markAggregatesLoaded() {
+        aggregatesLoaded = true;
+        if (aggregateReconciler == null && AGGREGATE_RECONCILE_SECONDS > 0) {
+            aggregateReconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "enrollment-aggregate-reconciler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            aggregateReconciler.scheduleWithFixedDelay(() -> {
+                reconcileEnrollmentAggregates(false);
+                refreshSeatLedger(false);
+            }, AGGREGATE_RECONCILE_SECONDS, AGGREGATE_RECONCILE_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Load the enrollment index from registrations read elsewhere, e.g. a warm-start snapshot.
+     * Registrations written through this DAO while it loads are recorded as well.
+     * @param registrations Adds every registration to the builder it is given
+     */
+    public static synchronized void seedEnrollmentIndex(Consumer<EnrollmentIndex.Builder> registrations) {
+        EnrollmentIndex.Builder builder = EnrollmentIndex.builder();
+        pendingEnrollments = builder;
+        try {
+            registrations.accept(builder);
+            ENROLLMENT_INDEX.replace(builder);
+            enrollmentIndexLoaded = true;
+        } finally {
+            pendingEnrollments = null;
+        }
+    }
+
+    /**
+     * Count the registrations up to an ID, e.g. to tell whether rows below a snapshot's
+     * highest ID were dropped or committed after it was read
+     * @param maxRegistrationId Highest registration ID to count
+     * @return Number of registrations, or -1 if the query failed
+     */
+    public static long countRegistrationsUpTo(int maxRegistrationId) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return -1;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(REGISTRATIONS_UP_TO_SQL)) {
+                pstmt.setInt(1, maxRegistrationId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : -1;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error counting registrations: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Add registrations created after a given ID to the enrollment index, e.g. since a snapshot was written.
+     * A registration with a lower ID that committed late, or one deleted by another process, leaves the
+     * index with a different count than the table; the index is then rebuilt.
+     * @param afterRegistrationId Highest registration ID already in the index
+     * @return true if the index is up to date, false if it is not loaded or a query failed
+     */
+    public static boolean syncEnrollmentIndex(int afterRegistrationId) {
+        if (!enrollmentIndexLoaded) {
+            return false;
+        }
+        long read = new RegistrationDAO().forEachRegistrationFact(afterRegistrationId, DEFAULT_FETCH_SIZE,
+                (registrationId, studentId, courseId, credits, department, semester, enrolledAt) ->
+                        ENROLLMENT_INDEX.add(studentId, courseId));
+        if (read < 0) {
+            return false;
+        }
+
+        long rows = countRegistrationsUpTo(Integer.MAX_VALUE);
+        if (rows < 0) {
+            return false;
+        }
+        if (rows != ENROLLMENT_INDEX.getRegistrationCount()) {
+            System.out.println("⚠️ Enrollment index has " + ENROLLMENT_INDEX.getRegistrationCount()
+                    + " registrations but the table has " + rows + ", rebuilding.");
+            return rebuildEnrollmentIndex();
+        }
+        return true;
+    }
+
+    /**
+     * Publish a registration written by this thread: listeners hear of it once the
+     * surrounding unit of work commits, and its ledger seat is given back if it rolls back
+     */
+    private static void registered(int studentId, int courseId) {
+        UnitOfWork.afterCommit(() -> fireRegistered(studentId, courseId));
+        UnitOfWork.afterRollback(() -> SEAT_LEDGER.release(courseId));
+    }
+
+    static void fireRegistered(int studentId, int courseId) {
+        for (RegistrationListener listener : LISTENERS) {
+            try {
+                listener.onRegistered(studentId, courseId);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Registration listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    static void fireDropped(int studentId, int courseId) {
+        for (RegistrationListener listener : LISTENERS) {
+            try {
+                listener.onDropped(studentId, courseId);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Registration listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * SQL that classifies requested courses as unknown, already registered or new for one student
+     * @param courseCount Number of requested course IDs
+     * @return Lookup SQL with the student ID first, then InClause.placeholders(courseCount)
+     */
+    static String courseLookupSql(int courseCount) {
+        return "SELECT c.course_id, r.registration_id FROM courses c "
+                + "LEFT JOIN registrations r ON r.course_id = c.course_id AND r.student_id = ? "
+                + "WHERE c.course_id IN (" + InClause.placeholders(courseCount) + ")";
+    }
+
+    /**
+     * SQL that finds which of a set of (student, course) pairs are registered, reading the
+     * newest committed rows instead of the transaction's snapshot
+     * @param pairCount Number of pairs
+     * @return Lookup SQL with InClause.pairPlaceholders(pairCount)
+     */
+    static String existingRegistrationsSql(int pairCount) {
+        return "SELECT student_id, course_id FROM registrations WHERE (student_id, course_id) IN ("
+                + InClause.pairPlaceholders(pairCount) + ") FOR SHARE";
+    }
+
+    /**
+     * Find which registrations of a batch already exist, before inserting it.
+     * Call after the seats of their courses were taken in the same transaction: every
+     * registration path locks the course row first, so no other session can add one of
+     * these pairs before this transaction ends and the answer holds for the insert.
+     * Batch update counts cannot be used instead: a rewritten multi-row insert reports
+     * SUCCESS_NO_INFO for every row.
+     * @param conn Connection with the open transaction
+     * @param keys Pairs from registrationKey()
+     * @return The keys that are already registered
+     */
+    static Set<Long> findExistingRegistrations(Connection conn, Collection<Long> keys) throws SQLException {
+        Set<Long> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        try (PreparedStatement lookup = conn.prepareStatement(existingRegistrationsSql(keys.size()))) {
+            InClause.bindPairs(lookup, 1, keys);
+            try (ResultSet rs = lookup.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(registrationKey(rs.getInt("student_id"), rs.getInt("course_id")));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return Student ID in the high and course ID in the low 32 bits
+     */
+    static long registrationKey(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Close a streaming cursor and return its connection to the pool
+     */
+    private static void closeCursor(ResultSet rs, Statement stmt, Connection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("❌ Error closing registration cursor: " + e.getMessage());
+        }
+    }
 }
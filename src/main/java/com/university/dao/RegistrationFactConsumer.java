@@ -0,0 +1,20 @@
+package com.university.dao;
+
+/**
+ * Receives registrations as primitive facts, without building Registration objects
+ */
+@FunctionalInterface
+public interface RegistrationFactConsumer {
+
+    /**
+     * @param registrationId Registration ID
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @param credits Credit hours of the course
+     * @param department Department of the course
+     * @param semester Semester of the course
+     * @param enrolledAtEpochSecond Enrollment time in seconds since the epoch, Long.MIN_VALUE if unknown
+     */
+    void accept(int registrationId, int studentId, int courseId, int credits,
+                String department, String semester, long enrolledAtEpochSecond);
+}
@@ -0,0 +1,20 @@
+package com.university.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Callback for registrations that were accepted by the write-behind queue but not written
+ * Called on the queue's writer thread, so implementations should be quick and must not throw.
+ */
+@FunctionalInterface
+public interface RegistrationFailureListener {
+
+    /**
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @param outcome ALREADY_REGISTERED if another session registered the pair first, COURSE_FULL
+     *                if no seat was left, otherwise FAILED
+     * @param cause Database error, or null if there was none
+     */
+    void onRegistrationFailed(int studentId, int courseId, RegistrationOutcome outcome, SQLException cause);
+}
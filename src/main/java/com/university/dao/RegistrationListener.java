@@ -0,0 +1,23 @@
+package com.university.dao;
+
+/**
+ * Callback for registrations written or dropped through RegistrationDAO
+ * Called after the write has been committed, on the writing thread, so implementations
+ * should be quick and must not throw.
+ */
+public interface RegistrationListener {
+
+    /**
+     * A student was registered for a course
+     * @param studentId Student ID
+     * @param courseId Course ID
+     */
+    void onRegistered(int studentId, int courseId);
+
+    /**
+     * A student's registration for a course was dropped
+     * @param studentId Student ID
+     * @param courseId Course ID
+     */
+    default void onDropped(int studentId, int courseId) {}
+}
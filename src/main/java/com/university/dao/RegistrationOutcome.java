@@ -0,0 +1,27 @@
+package com.university.dao;
+
+/**
+ * Per-course result of a batch or queued registration
+ */
+public enum RegistrationOutcome {
+    INSERTED("registered"),
+    ALREADY_REGISTERED("already registered"),
+    UNKNOWN_COURSE("course not found"),
+    /** No seat left on the course */
+    COURSE_FULL("course is full"),
+    FAILED("failed"),
+    /** Accepted by the write-behind queue; written shortly */
+    QUEUED("accepted"),
+    /** Rejected because the write-behind queue is full or shutting down */
+    QUEUE_FULL("rejected, try again");
+
+    private final String description;
+
+    RegistrationOutcome(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
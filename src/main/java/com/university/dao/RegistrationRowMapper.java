@@ -0,0 +1,108 @@
+package com.university.dao;
+
+import com.university.model.Course;
+import com.university.model.Registration;
+import com.university.model.Student;
+import com.university.util.IntObjectMap;
+import com.university.util.StringPool;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Maps rows of the registration details join with per-query identity maps
+ * Every student_id and course_id maps to one shared Student and Course instance,
+ * and repeated columns such as department, semester and grade share one String,
+ * so a student with 8 courses is materialised once instead of 8 times.
+ * Create one mapper per query; the shared objects must be treated as read-only.
+ */
+class RegistrationRowMapper {
+    private final IntObjectMap<Student> students;
+    private final IntObjectMap<Course> courses = new IntObjectMap<>(256);
+    private final StringPool strings = new StringPool();
+
+    // Rows arrive grouped by student, so a streaming reader only needs the current one
+    private Student currentStudent;
+
+    /**
+     * @param rememberAllStudents true to keep every student for the lifetime of the query
+     *                            (list results), false to keep only the current student (streams)
+     */
+    RegistrationRowMapper(boolean rememberAllStudents) {
+        this.students = rememberAllStudents ? new IntObjectMap<>(1024) : null;
+    }
+
+    /**
+     * Map the current row of the registration details join
+     * @param rs Result set positioned on a row
+     * @return Registration sharing Student and Course instances with earlier rows
+     */
+    Registration map(ResultSet rs) throws SQLException {
+        Registration registration = new Registration();
+        int studentId = rs.getInt("student_id");
+        int courseId = rs.getInt("course_id");
+        registration.setRegistrationId(rs.getInt("registration_id"));
+        registration.setStudentId(studentId);
+        registration.setCourseId(courseId);
+
+        Timestamp enrollmentTimestamp = rs.getTimestamp("enrollment_date");
+        if (enrollmentTimestamp != null) {
+            registration.setEnrollmentDate(enrollmentTimestamp.toLocalDateTime());
+        }
+
+        registration.setGrade(strings.intern(rs.getString("grade")));
+        registration.setStudent(studentFor(studentId, rs));
+        registration.setCourse(courseFor(courseId, rs));
+
+        return registration;
+    }
+
+    private Student studentFor(int studentId, ResultSet rs) throws SQLException {
+        if (currentStudent != null && currentStudent.getStudentId() == studentId) {
+            return currentStudent;
+        }
+        Student student = students != null ? students.get(studentId) : null;
+        if (student == null) {
+            // Only read the student columns the first time this student is seen
+            student = new Student();
+            student.setStudentId(studentId);
+            student.setFirstName(rs.getString("first_name"));
+            student.setLastName(rs.getString("last_name"));
+            student.setEmail(rs.getString("email"));
+            student.setPhone(rs.getString("phone"));
+
+            Date dobDate = rs.getDate("date_of_birth");
+            if (dobDate != null) {
+                student.setDateOfBirth(dobDate.toLocalDate());
+            }
+
+            Timestamp regTimestamp = rs.getTimestamp("registration_date");
+            if (regTimestamp != null) {
+                student.setRegistrationDate(regTimestamp.toLocalDateTime());
+            }
+
+            if (students != null) {
+                students.put(studentId, student);
+            }
+        }
+        currentStudent = student;
+        return student;
+    }
+
+    private Course courseFor(int courseId, ResultSet rs) throws SQLException {
+        Course course = courses.get(courseId);
+        if (course == null) {
+            course = new Course();
+            course.setCourseId(courseId);
+            course.setCourseCode(rs.getString("course_code"));
+            course.setCourseName(rs.getString("course_name"));
+            course.setCredits(rs.getInt("credits"));
+            course.setDepartment(strings.intern(rs.getString("department")));
+            course.setSemester(strings.intern(rs.getString("semester")));
+            courses.put(courseId, course);
+        }
+        return course;
+    }
+}
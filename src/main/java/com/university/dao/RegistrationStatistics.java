@@ -0,0 +1,49 @@
+package com.university.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registration counts by department, semester and credit hours
+ */
+public class RegistrationStatistics {
+    private final Map<String, Long> departmentCounts = new HashMap<>();
+    private final Map<String, Long> semesterCounts = new HashMap<>();
+    private final Map<Integer, Long> creditCounts = new HashMap<>();
+    private long totalRegistrations;
+
+    /**
+     * Add a group of registrations that share department, semester and credits
+     * @param department Course department
+     * @param semester Course semester
+     * @param credits Course credit hours
+     * @param count Number of registrations in the group
+     */
+    public void add(String department, String semester, int credits, long count) {
+        departmentCounts.merge(department, count, Long::sum);
+        semesterCounts.merge(semester, count, Long::sum);
+        creditCounts.merge(credits, count, Long::sum);
+        totalRegistrations += count;
+    }
+
+    /**
+     * Fold another set of statistics into this one
+     * @param other Statistics to add
+     */
+    public void merge(RegistrationStatistics other) {
+        other.departmentCounts.forEach((key, count) -> departmentCounts.merge(key, count, Long::sum));
+        other.semesterCounts.forEach((key, count) -> semesterCounts.merge(key, count, Long::sum));
+        other.creditCounts.forEach((key, count) -> creditCounts.merge(key, count, Long::sum));
+        totalRegistrations += other.totalRegistrations;
+    }
+
+    public Map<String, Long> getDepartmentCounts() { return departmentCounts; }
+
+    public Map<String, Long> getSemesterCounts() { return semesterCounts; }
+
+    public Map<Integer, Long> getCreditCounts() { return creditCounts; }
+
+    public long getTotalRegistrations() { return totalRegistrations; }
+
+    public boolean isEmpty() { return totalRegistrations == 0; }
+}
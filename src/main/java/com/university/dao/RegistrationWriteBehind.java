@@ -0,0 +1,301 @@
+package com.university.dao;
+
+import com.university.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind queue for registrations
+ * submit() answers at once: a registration is rejected if the same pair is already
+ * waiting, or if the bounded queue stays full for the offer timeout (backpressure).
+ * A writer thread drains the queue and inserts up to batchSize registrations per
+ * transaction, so one commit covers many registrations. A batch is written as soon as
+ * it is full or maxDelayMillis after its first registration arrived, whichever is first.
+ *
+ * Each batch takes its seats with guarded updates in course ID order before inserting;
+ * a registration whose course turns out to be full is reported as COURSE_FULL.
+ *
+ * Registrations are only durable once written. close() stops accepting, writes out
+ * everything queued and waits for the writer; registrations still queued when the
+ * process is killed are lost. A batch that fails is retried one registration at a
+ * time and each registration that still fails is reported to the failure listener.
+ */
+public final class RegistrationWriteBehind {
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+    private final RegistrationFailureListener failureListener;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of queued registrations
+     * @param batchSize Maximum registrations per transaction
+     * @param maxDelayMillis Longest a registration waits for its batch to fill
+     * @param offerTimeoutMillis How long submit() waits for room in a full queue before rejecting
+     * @param failureListener Told about accepted registrations that could not be written
+     */
+    public RegistrationWriteBehind(int capacity, int batchSize, long maxDelayMillis, long offerTimeoutMillis,
+                                   RegistrationFailureListener failureListener) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.failureListener = failureListener;
+        this.writer = new Thread(this::run, "registration-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a registration
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return QUEUED, ALREADY_REGISTERED if the pair is already queued, or QUEUE_FULL
+     */
+    public RegistrationOutcome submit(int studentId, int courseId) {
+        long key = RegistrationDAO.registrationKey(studentId, courseId);
+        if (!accepting) {
+            rejected.increment();
+            return RegistrationOutcome.QUEUE_FULL;
+        }
+        if (!pending.add(key)) {
+            return RegistrationOutcome.ALREADY_REGISTERED;
+        }
+
+        boolean queued;
+        try {
+            queued = queue.offer(key, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            pending.remove(key);
+            rejected.increment();
+            return RegistrationOutcome.QUEUE_FULL;
+        }
+        accepted.increment();
+        return RegistrationOutcome.QUEUED;
+    }
+
+    /**
+     * @return true if the pair has been accepted but not yet written
+     */
+    public boolean isPending(int studentId, int courseId) {
+        return pending.contains(RegistrationDAO.registrationKey(studentId, courseId));
+    }
+
+    /**
+     * Stop accepting registrations and write out the queue
+     * @param timeoutMillis Longest to wait for the writer to finish
+     * @return true if everything queued was written or reported
+     */
+    public boolean close(long timeoutMillis) {
+        accepting = false;
+        writer.interrupt();
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            return false;
+        }
+        // A submit() that raced with close() may have queued after the writer's last drain
+        Long key;
+        while ((key = queue.poll()) != null) {
+            fail(key, RegistrationOutcome.FAILED, null);
+        }
+        return true;
+    }
+
+    public int getQueuedCount() { return queue.size(); }
+
+    public long getAcceptedCount() { return accepted.sum(); }
+
+    public long getRejectedCount() { return rejected.sum(); }
+
+    public long getWrittenCount() { return written.sum(); }
+
+    public long getFailedCount() { return failed.sum(); }
+
+    public long getBatchCount() { return batches.sum(); }
+
+    private void run() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Long next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close(): stop waiting for the batch to fill and write what there is
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insert a batch in one transaction, falling back to one registration at a time if it fails
+     */
+    private void writeBatch(List<Long> batch) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                batch.forEach(key -> fail(key, RegistrationOutcome.FAILED, null));
+                return;
+            }
+
+            // Same lock order as every other registration path
+            batch.sort(Comparator.comparingInt(RegistrationWriteBehind::courseId));
+            List<Long> seated = new ArrayList<>(batch.size());
+            List<Long> full = new ArrayList<>();
+            List<Long> unknown = new ArrayList<>();
+            Set<Long> existing;
+            conn.setAutoCommit(false);
+            try (PreparedStatement takeSeat = conn.prepareStatement(RegistrationDAO.TAKE_SEAT_SQL);
+                 PreparedStatement insert = conn.prepareStatement(RegistrationDAO.BATCH_REGISTER_SQL)) {
+                for (long key : batch) {
+                    takeSeat.setInt(1, courseId(key));
+                    takeSeat.addBatch();
+                }
+                int[] taken = takeSeat.executeBatch();
+                for (int i = 0; i < batch.size(); i++) {
+                    long key = batch.get(i);
+                    if (i >= taken.length || taken[i] != 0) {
+                        seated.add(key);
+                    } else if (RegistrationDAO.courseExists(conn, courseId(key))) {
+                        full.add(key);
+                    } else {
+                        // Deleted after the registration was accepted
+                        unknown.add(key);
+                    }
+                }
+
+                // Pairs another session registered after they were accepted give their seats back
+                existing = RegistrationDAO.findExistingRegistrations(conn, seated);
+                List<Integer> duplicates = new ArrayList<>();
+                for (long key : seated) {
+                    if (existing.contains(key)) {
+                        duplicates.add(courseId(key));
+                    } else {
+                        insert.setInt(1, studentId(key));
+                        insert.setInt(2, courseId(key));
+                        insert.addBatch();
+                    }
+                }
+                if (duplicates.size() < seated.size()) {
+                    insert.executeBatch();
+                }
+                RegistrationDAO.releaseSeats(conn, duplicates);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                writeIndividually(conn, batch);
+                return;
+            }
+
+            batches.increment();
+            full.forEach(key -> fail(key, RegistrationOutcome.COURSE_FULL, null));
+            unknown.forEach(key -> fail(key, RegistrationOutcome.UNKNOWN_COURSE, null));
+            for (long key : seated) {
+                complete(key, !existing.contains(key));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error writing queued registrations: " + e.getMessage());
+            e.printStackTrace();
+            batch.forEach(key -> {
+                if (pending.contains(key)) {
+                    fail(key, RegistrationOutcome.FAILED, e);
+                }
+            });
+        }
+    }
+
+    private void writeIndividually(Connection conn, List<Long> batch) {
+        for (long key : batch) {
+            try {
+                InsertResult result = RegistrationDAO.insertWithSeat(conn, studentId(key), courseId(key));
+                if (result.isRejected()) {
+                    fail(key, RegistrationOutcome.COURSE_FULL, null);
+                } else if (result.isNotFound()) {
+                    fail(key, RegistrationOutcome.UNKNOWN_COURSE, null);
+                } else {
+                    complete(key, result.isCreated());
+                }
+            } catch (SQLException e) {
+                fail(key, RegistrationOutcome.FAILED, e);
+            }
+        }
+    }
+
+    private void complete(long key, boolean inserted) {
+        if (inserted) {
+            written.increment();
+            // Notify before leaving the pending set, so a duplicate check always sees the pair somewhere
+            RegistrationDAO.fireRegistered(studentId(key), courseId(key));
+            pending.remove(key);
+        } else {
+            fail(key, RegistrationOutcome.ALREADY_REGISTERED, null);
+        }
+    }
+
+    private void fail(long key, RegistrationOutcome outcome, SQLException cause) {
+        if (outcome == RegistrationOutcome.COURSE_FULL) {
+            RegistrationDAO.markCourseFull(courseId(key));
+        } else {
+            RegistrationDAO.releaseSeat(courseId(key));
+        }
+        pending.remove(key);
+        failed.increment();
+        try {
+            failureListener.onRegistrationFailed(studentId(key), courseId(key), outcome, cause);
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Registration failure listener failed: " + e.getMessage());
+        }
+    }
+
+    private static int studentId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int courseId(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,80 @@
+package com.university.dao;
+
+import com.university.database.DatabaseConnection;
+import com.university.model.Registration;
+import com.university.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.sql.*;
+
+/**
+ * Data Access Object for warm-start snapshots
+ * Reads students, courses and registrations in one read-only transaction, so the
+ * three tables in a snapshot are consistent with each other.
+ */
+public class SnapshotDAO {
+    static final String SNAPSHOT_STUDENTS_SQL = "SELECT * FROM students ORDER BY student_id";
+    static final String SNAPSHOT_REGISTRATIONS_SQL =
+            "SELECT registration_id, student_id, course_id, enrollment_date, grade FROM registrations "
+                    + "ORDER BY registration_id";
+    private static final int FETCH_SIZE = 5000;
+
+    /**
+     * Stream all three tables into a snapshot writer
+     * @param writer Writer receiving courses, then students, then registrations
+     * @return true if every row was read, false if a query failed
+     * @throws IOException if the writer fails
+     */
+    public boolean exportTo(SnapshotWriter writer) throws IOException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            // The first query fixes the InnoDB read view for the rest of the transaction
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(CourseDAO.ALL_COURSES_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.addCourse(CourseDAO.mapCourse(rs));
+                }
+            }
+
+            try (PreparedStatement pstmt = streaming(conn, SNAPSHOT_STUDENTS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    writer.addStudent(StudentDAO.mapStudent(rs));
+                }
+            }
+
+            try (PreparedStatement pstmt = streaming(conn, SNAPSHOT_REGISTRATIONS_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                Registration registration = new Registration();
+                while (rs.next()) {
+                    registration.setRegistrationId(rs.getInt(1));
+                    registration.setStudentId(rs.getInt(2));
+                    registration.setCourseId(rs.getInt(3));
+                    Timestamp enrolledAt = rs.getTimestamp(4);
+                    registration.setEnrollmentDate(enrolledAt != null ? enrolledAt.toLocalDateTime() : null);
+                    registration.setGrade(rs.getString(5));
+                    writer.addRegistration(registration);
+                }
+            }
+
+            conn.commit();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading data for snapshot: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private static PreparedStatement streaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(FETCH_SIZE);
+        return pstmt;
+    }
+}
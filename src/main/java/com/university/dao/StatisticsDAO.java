@@ -0,0 +1,47 @@
+package com.university.dao;
+
+import com.university.database.DatabaseConnection;
+
+import java.sql.*;
+
+/**
+ * Data Access Object for registration statistics
+ * Aggregates in the database so only group counts travel over the wire
+ */
+public class StatisticsDAO {
+    static final String REGISTRATION_STATISTICS_SQL = """
+            SELECT c.department, c.semester, c.credits, COUNT(*) AS registrations
+            FROM registrations r
+            INNER JOIN courses c ON r.course_id = c.course_id
+            GROUP BY c.department, c.semester, c.credits
+            """;
+
+    /**
+     * Count registrations by department, semester and credit hours.
+     * A single GROUP BY over the three columns scans the registrations once and returns
+     * one row per (department, semester, credits) combination; the three per-dimension
+     * totals are then summed from those few rows.
+     * @return Registration statistics, empty if there are no registrations
+     */
+    public RegistrationStatistics getRegistrationStatistics() {
+        RegistrationStatistics statistics = new RegistrationStatistics();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(REGISTRATION_STATISTICS_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                statistics.add(rs.getString("department"),
+                        rs.getString("semester"),
+                        rs.getInt("credits"),
+                        rs.getLong("registrations"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error retrieving registration statistics: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return statistics;
+    }
+}
@@ -1,19 +1,59 @@
 package com.university.dao;
 
+import com.university.cache.EmailBloomFilter;
+import com.university.cache.TinyLfuCache;
 import com.university.database.DatabaseConnection;
+import com.university.database.UnitOfWork;
+import com.university.journal.ChangeJournal;
+import com.university.journal.ChangeType;
 import com.university.model.Student;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Data Access Object for Student operations
  * Handles all database operations related to students
+ * Lookups by ID go through a shared TinyLfuCache; writes through this DAO invalidate it.
+ * Email checks consult an EmailBloomFilter first and only query on a possible match.
  */
 public class StudentDAO {
+    private static final int EMAIL_LOOKUP_CHUNK = 512;
+
+    // Hot students selected by ID; bulk listings bypass it so a scan cannot flush it.
+    // Size is overridable with -Dstudent.cache.maxSize
+    private static final TinyLfuCache<Student> STUDENT_CACHE =
+            new TinyLfuCache<>(Integer.getInteger("student.cache.maxSize", 4096));
+
+    static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO students (first_name, last_name, email, phone, date_of_birth) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE student_id = LAST_INSERT_ID(student_id)";
+    static final String INSERT_SQL =
+            "INSERT INTO students (first_name, last_name, email, phone, date_of_birth) VALUES (?, ?, ?, ?, ?)";
+    static final String ALL_STUDENTS_SQL = "SELECT * FROM students ORDER BY last_name, first_name";
+    static final String STUDENT_BY_ID_SQL = "SELECT * FROM students WHERE student_id = ?";
+    static final String EMAIL_EXISTS_SQL = "SELECT COUNT(*) FROM students WHERE email = ?";
+    static final String STUDENT_COUNT_SQL = "SELECT COUNT(*) FROM students";
+    static final String ALL_EMAILS_SQL = "SELECT email FROM students";
+    static final String EMAILS_AFTER_ID_SQL = "SELECT email FROM students WHERE student_id > ?";
+
+    // Negative email checks are answered from memory; -Demail.filter.fpp sets the false positive rate
+    private static final double EMAIL_FILTER_FPP = Double.parseDouble(System.getProperty("email.filter.fpp", "0.01"));
+    private static final int EMAIL_FILTER_MIN_CAPACITY = 10_000;
+    private static final int EMAIL_SCAN_FETCH_SIZE = 1000;
+    private static volatile EmailBloomFilter emailFilter;
+    // Filter being rebuilt; emails added during the rebuild scan go into it as well
+    private static volatile EmailBloomFilter pendingEmailFilter;
+    private static final LongAdder EMAIL_QUERIES_SKIPPED = new LongAdder();
+    private static final LongAdder EMAIL_FILTER_FALSE_POSITIVES = new LongAdder();
 
     /**
      * Add a new student to the database
@@ -21,34 +61,165 @@ public class StudentDAO {
      * @return Generated student ID if successful, -1 if failed
      */
     public int addStudent(Student student) {
-        String sql = "INSERT INTO students (first_name, last_name, email, phone, date_of_birth) VALUES (?, ?, ?, ?, ?)";
+        InsertResult result = addStudentIfAbsent(student);
+
+        if (result.isCreated()) {
+            System.out.println("✅ Student added successfully with ID: " + result.getId());
+            return result.getId();
+        }
+        if (result.isAlreadyExists()) {
+            System.err.println("❌ A student with this email already exists!");
+        }
+        return -1;
+    }
 
+    /**
+     * Add a student in a single statement unless one with the same email exists.
+     * Relies on the unique email index: a duplicate turns into a no-op update that
+     * points LAST_INSERT_ID at the existing student, so no separate emailExists query is needed.
+     * @param student Student object to be added; its ID is set when created
+     * @return CREATED with the new student ID, ALREADY_EXISTS with the existing one, or FAILED
+     */
+    public InsertResult addStudentIfAbsent(Student student) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_IF_ABSENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, student.getFirstName());
-            pstmt.setString(2, student.getLastName());
-            pstmt.setString(3, student.getEmail());
-            pstmt.setString(4, student.getPhone());
-            pstmt.setDate(5, Date.valueOf(student.getDateOfBirth()));
+            bindStudent(pstmt, student);
 
             int affectedRows = pstmt.executeUpdate();
+            InsertResult result = InsertResults.fromUpsert(conn, pstmt, affectedRows);
+            if (result.isCreated()) {
+                int studentId = result.getId();
+                student.setStudentId(studentId);
+                STUDENT_CACHE.invalidate(studentId);
+                studentAdded(studentId);
+            }
+            if (!result.isFailed()) {
+                // Also covers a student added by another process since the filter was built
+                recordEmail(student.getEmail());
+            }
+            return result;
 
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int studentId = generatedKeys.getInt(1);
-                        student.setStudentId(studentId);
-                        System.out.println("✅ Student added successfully with ID: " + studentId);
-                        return studentId;
+        } catch (SQLException e) {
+            System.err.println("❌ Error adding student: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return InsertResult.failed();
+    }
+
+    /**
+     * Insert many students as JDBC batches, committing once per batch.
+     * A batch that fails, e.g. on an email another session added since it was checked,
+     * is rolled back and retried one row at a time, skipping emails that already exist.
+     * Generated IDs are written back to the Student objects once their batch has committed.
+     * @param students Students to insert
+     * @param batchSize Rows per batch and transaction
+     * @return Number of students inserted; students not inserted keep ID 0
+     */
+    public int addStudentsBatch(List<Student> students, int batchSize) {
+        int inserted = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return 0;
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < students.size(); start += batchSize) {
+                    List<Student> batch = students.subList(start, Math.min(start + batchSize, students.size()));
+                    int[] ids;
+                    try {
+                        ids = insertBatch(pstmt, batch);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        pstmt.clearBatch();
+                        try {
+                            ids = insertIndividually(conn, batch);
+                            conn.commit();
+                        } catch (SQLException retryFailure) {
+                            conn.rollback();
+                            System.err.println("❌ Error inserting student batch starting at row " + start + ": "
+                                    + retryFailure.getMessage());
+                            continue;
+                        }
                     }
+                    inserted += publishInserted(batch, ids);
                 }
             }
+
         } catch (SQLException e) {
-            System.err.println("❌ Error adding student: " + e.getMessage());
+            System.err.println("❌ Error adding students: " + e.getMessage());
             e.printStackTrace();
         }
-        return -1;
+
+        return inserted;
+    }
+
+    /**
+     * Insert a batch as one multi-row INSERT
+     * @return Generated ID per student, in batch order
+     */
+    private static int[] insertBatch(PreparedStatement pstmt, List<Student> batch) throws SQLException {
+        for (Student student : batch) {
+            bindStudent(pstmt, student);
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+
+        int[] ids = new int[batch.size()];
+        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+            for (int i = 0; i < ids.length && generatedKeys.next(); i++) {
+                ids[i] = generatedKeys.getInt(1);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Insert a batch row by row, leaving out students whose email already exists
+     * @return Generated ID per student in batch order, 0 where the email already existed
+     */
+    private static int[] insertIndividually(Connection conn, List<Student> batch) throws SQLException {
+        int[] ids = new int[batch.size()];
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_IF_ABSENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ids.length; i++) {
+                bindStudent(pstmt, batch.get(i));
+                InsertResult result = InsertResults.fromUpsert(conn, pstmt, pstmt.executeUpdate());
+                if (result.isCreated()) {
+                    ids[i] = result.getId();
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Write back the IDs of a committed batch and publish its new students
+     * @return Number of students inserted
+     */
+    private static int publishInserted(List<Student> batch, int[] ids) {
+        int inserted = 0;
+        for (int i = 0; i < ids.length; i++) {
+            Student student = batch.get(i);
+            // Inserted or not, the email now exists
+            recordEmail(student.getEmail());
+            if (ids[i] > 0) {
+                student.setStudentId(ids[i]);
+                STUDENT_CACHE.invalidate(ids[i]);
+                studentAdded(ids[i]);
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    private static void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getFirstName());
+        pstmt.setString(2, student.getLastName());
+        pstmt.setString(3, student.getEmail());
+        pstmt.setString(4, student.getPhone());
+        pstmt.setDate(5, Date.valueOf(student.getDateOfBirth()));
     }
 
     /**
@@ -57,31 +228,13 @@ public class StudentDAO {
      */
     public List<Student> getAllStudents() {
         List<Student> students = new ArrayList<>();
-        String sql = "SELECT * FROM students ORDER BY last_name, first_name";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement pstmt = conn.prepareStatement(ALL_STUDENTS_SQL);
              ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                Student student = new Student();
-                student.setStudentId(rs.getInt("student_id"));
-                student.setFirstName(rs.getString("first_name"));
-                student.setLastName(rs.getString("last_name"));
-                student.setEmail(rs.getString("email"));
-                student.setPhone(rs.getString("phone"));
-
-                Date dobDate = rs.getDate("date_of_birth");
-                if (dobDate != null) {
-                    student.setDateOfBirth(dobDate.toLocalDate());
-                }
-
-                Timestamp regTimestamp = rs.getTimestamp("registration_date");
-                if (regTimestamp != null) {
-                    student.setRegistrationDate(regTimestamp.toLocalDateTime());
-                }
-
-                students.add(student);
+                students.add(mapStudent(rs));
             }
 
         } catch (SQLException e) {
@@ -93,37 +246,101 @@ public class StudentDAO {
     }
 
     /**
-     * Find student by ID
+     * Retrieve one page of students ordered by last name, first name and ID.
+     * Uses keyset pagination: the next page seeks past the last row of the previous one
+     * instead of using OFFSET, so every page costs the same regardless of depth.
+     * @param namePrefix Optional prefix matched against first or last name, null for no filter
+     * @param emailPrefix Optional email prefix, null for no filter
+     * @param after Last student of the previous page, null for the first page
+     * @param pageSize Maximum number of students to return
+     * @return Page of students
+     */
+    public StudentPage getStudentsPage(String namePrefix, String emailPrefix, Student after, int pageSize) {
+        List<Student> students = new ArrayList<>();
+        boolean hasNamePrefix = namePrefix != null && !namePrefix.isBlank();
+        boolean hasEmailPrefix = emailPrefix != null && !emailPrefix.isBlank();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     studentsPageSql(hasNamePrefix, hasEmailPrefix, after != null))) {
+
+            int index = 1;
+            if (hasNamePrefix) {
+                String pattern = likePrefix(namePrefix.trim());
+                pstmt.setString(index++, pattern);
+                pstmt.setString(index++, pattern);
+            }
+            if (hasEmailPrefix) {
+                pstmt.setString(index++, likePrefix(emailPrefix.trim()));
+            }
+            if (after != null) {
+                pstmt.setString(index++, after.getLastName());
+                pstmt.setString(index++, after.getFirstName());
+                pstmt.setInt(index++, after.getStudentId());
+            }
+            pstmt.setInt(index, pageSize + 1);
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                students.add(mapStudent(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error retrieving student page: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        boolean hasMore = students.size() > pageSize;
+        if (hasMore) {
+            students.remove(students.size() - 1);
+        }
+        return new StudentPage(students, hasMore);
+    }
+
+    /**
+     * Build the keyset pagination query for getStudentsPage
+     * @param hasNamePrefix Whether to filter on a first or last name prefix (two parameters)
+     * @param hasEmailPrefix Whether to filter on an email prefix (one parameter)
+     * @param hasAfter Whether to seek past a previous page (three parameters)
+     * @return Page SQL; the last parameter is the row limit
+     */
+    static String studentsPageSql(boolean hasNamePrefix, boolean hasEmailPrefix, boolean hasAfter) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM students WHERE 1 = 1");
+        if (hasNamePrefix) {
+            sql.append(" AND (last_name LIKE ? OR first_name LIKE ?)");
+        }
+        if (hasEmailPrefix) {
+            sql.append(" AND email LIKE ?");
+        }
+        if (hasAfter) {
+            sql.append(" AND (last_name, first_name, student_id) > (?, ?, ?)");
+        }
+        // Fetch one extra row to find out whether another page follows
+        sql.append(" ORDER BY last_name, first_name, student_id LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * Find student by ID, served from the student cache when possible.
+     * The returned object may be shared with other callers and must not be modified.
      * @param studentId Student ID to search for
      * @return Student object if found, null otherwise
      */
     public Student getStudentById(int studentId) {
-        String sql = "SELECT * FROM students WHERE student_id = ?";
+        Student cached = STUDENT_CACHE.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(STUDENT_BY_ID_SQL)) {
 
             pstmt.setInt(1, studentId);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Student student = new Student();
-                student.setStudentId(rs.getInt("student_id"));
-                student.setFirstName(rs.getString("first_name"));
-                student.setLastName(rs.getString("last_name"));
-                student.setEmail(rs.getString("email"));
-                student.setPhone(rs.getString("phone"));
-
-                Date dobDate = rs.getDate("date_of_birth");
-                if (dobDate != null) {
-                    student.setDateOfBirth(dobDate.toLocalDate());
-                }
-
-                Timestamp regTimestamp = rs.getTimestamp("registration_date");
-                if (regTimestamp != null) {
-                    student.setRegistrationDate(regTimestamp.toLocalDateTime());
-                }
-
+                Student student = mapStudent(rs);
+                STUDENT_CACHE.put(studentId, student);
                 return student;
             }
 
@@ -135,22 +352,37 @@ public class StudentDAO {
         return null;
     }
 
+    /**
+     * @return Shared cache behind getStudentById, e.g. for hit ratio statistics
+     */
+    public static TinyLfuCache<Student> getStudentCache() {
+        return STUDENT_CACHE;
+    }
+
     /**
      * Check if email already exists in database
      * @param email Email to check
      * @return true if email exists, false otherwise
      */
     public boolean emailExists(String email) {
-        String sql = "SELECT COUNT(*) FROM students WHERE email = ?";
+        EmailBloomFilter filter = emailFilter;
+        if (filter != null && !filter.mightContain(email)) {
+            EMAIL_QUERIES_SKIPPED.increment();
+            return false;
+        }
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(EMAIL_EXISTS_SQL)) {
 
             pstmt.setString(1, email);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getInt(1) > 0;
+                boolean exists = rs.getInt(1) > 0;
+                if (!exists && filter != null) {
+                    EMAIL_FILTER_FALSE_POSITIVES.increment();
+                }
+                return exists;
             }
 
         } catch (SQLException e) {
@@ -160,4 +392,234 @@ public class StudentDAO {
 
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Find which of the given emails already belong to a student, using one query per chunk
+     * @param emails Emails to check
+     * @return The subset of emails already in the database, lower-cased
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        List<String> pending = new ArrayList<>(emails.size());
+        EmailBloomFilter filter = emailFilter;
+        for (String email : emails) {
+            // Only emails the filter cannot rule out need a database lookup
+            if (filter == null || filter.mightContain(email)) {
+                pending.add(email);
+            }
+        }
+        if (filter != null) {
+            EMAIL_QUERIES_SKIPPED.add(emails.size() - pending.size());
+        }
+        if (pending.isEmpty()) {
+            return existing;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int start = 0; start < pending.size(); start += EMAIL_LOOKUP_CHUNK) {
+                List<String> chunk = pending.subList(start, Math.min(start + EMAIL_LOOKUP_CHUNK, pending.size()));
+                try (PreparedStatement pstmt = conn.prepareStatement(existingEmailsSql(chunk.size()))) {
+                    InClause.bindStrings(pstmt, 1, chunk);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        existing.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error checking emails: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return existing;
+    }
+
+    /**
+     * Build a new email filter from a streaming scan of all student emails and swap it in.
+     * The filter is sized for twice the current student count, so it keeps its false
+     * positive rate while the table grows; rebuild it after large imports.
+     * @return true if the filter was rebuilt, false if the scan failed (the old filter stays in use)
+     */
+    public static synchronized boolean rebuildEmailFilter() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+
+            long studentCount = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(STUDENT_COUNT_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    studentCount = rs.getLong(1);
+                }
+            }
+
+            EmailBloomFilter filter = new EmailBloomFilter(
+                    Math.max(EMAIL_FILTER_MIN_CAPACITY, studentCount * 2), EMAIL_FILTER_FPP);
+            // Publish before scanning: an email committed after the scan starts is recorded by its writer
+            pendingEmailFilter = filter;
+            try (PreparedStatement pstmt = conn.prepareStatement(ALL_EMAILS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setFetchSize(EMAIL_SCAN_FETCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        filter.put(rs.getString(1));
+                    }
+                }
+            }
+
+            emailFilter = filter;
+            System.out.println("✅ Email filter built for " + filter.getApproximateCount() + " students.");
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error building email filter: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            pendingEmailFilter = null;
+        }
+        return false;
+    }
+
+    /**
+     * Build the email filter from emails read elsewhere, e.g. a warm-start snapshot,
+     * instead of scanning the students table
+     * @param studentCount Number of emails, used to size the filter
+     * @param emails Emails of all students
+     */
+    public static synchronized void seedEmailFilter(long studentCount, Iterable<String> emails) {
+        EmailBloomFilter filter = new EmailBloomFilter(
+                Math.max(EMAIL_FILTER_MIN_CAPACITY, studentCount * 2), EMAIL_FILTER_FPP);
+        pendingEmailFilter = filter;
+        try {
+            for (String email : emails) {
+                filter.put(email);
+            }
+            emailFilter = filter;
+        } finally {
+            pendingEmailFilter = null;
+        }
+    }
+
+    /**
+     * Add the emails of students created after a given ID, e.g. since a snapshot was written
+     * @param afterStudentId Highest student ID already in the filter
+     * @return true if the filter is up to date, false if there is no filter or the query failed
+     */
+    public static boolean syncEmailFilter(int afterStudentId) {
+        EmailBloomFilter filter = emailFilter;
+        if (filter == null) {
+            return false;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(EMAILS_AFTER_ID_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                pstmt.setInt(1, afterStudentId);
+                pstmt.setFetchSize(EMAIL_SCAN_FETCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        filter.put(rs.getString(1));
+                    }
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error updating email filter: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * @return Current email filter, or null if it has not been built
+     */
+    public static EmailBloomFilter getEmailFilter() {
+        return emailFilter;
+    }
+
+    /**
+     * @return Email lookups answered by the filter without a query
+     */
+    public static long getEmailQueriesSkipped() {
+        return EMAIL_QUERIES_SKIPPED.sum();
+    }
+
+    /**
+     * @return Email lookups the filter passed to the database that found no student
+     */
+    public static long getEmailFilterFalsePositives() {
+        return EMAIL_FILTER_FALSE_POSITIVES.sum();
+    }
+
+    /**
+     * Journal a new student once the surrounding unit of work commits; if it rolls back,
+     * drop anything a read inside the unit cached for the student
+     * @param studentId ID of the inserted student
+     */
+    private static void studentAdded(int studentId) {
+        UnitOfWork.afterCommit(() -> ChangeJournal.record(ChangeType.STUDENT_ADDED, studentId, 0));
+        UnitOfWork.afterRollback(() -> STUDENT_CACHE.invalidate(studentId));
+    }
+
+    private static void recordEmail(String email) {
+        EmailBloomFilter filter = emailFilter;
+        if (filter != null) {
+            filter.put(email);
+        }
+        EmailBloomFilter pending = pendingEmailFilter;
+        if (pending != null) {
+            pending.put(email);
+        }
+    }
+
+    /**
+     * @param emailCount Number of emails in one lookup chunk
+     * @return Email lookup SQL with InClause.placeholders(emailCount)
+     */
+    static String existingEmailsSql(int emailCount) {
+        return "SELECT email FROM students WHERE email IN (" + InClause.placeholders(emailCount) + ")";
+    }
+
+    /**
+     * Map the current result set row to a Student object
+     * @param rs Result set positioned on a students row
+     * @return Populated Student object
+     */
+    static Student mapStudent(ResultSet rs) throws SQLException {
+        Student student = new Student();
+        student.setStudentId(rs.getInt("student_id"));
+        student.setFirstName(rs.getString("first_name"));
+        student.setLastName(rs.getString("last_name"));
+        student.setEmail(rs.getString("email"));
+        student.setPhone(rs.getString("phone"));
+
+        Date dobDate = rs.getDate("date_of_birth");
+        if (dobDate != null) {
+            student.setDateOfBirth(dobDate.toLocalDate());
+        }
+
+        Timestamp regTimestamp = rs.getTimestamp("registration_date");
+        if (regTimestamp != null) {
+            student.setRegistrationDate(regTimestamp.toLocalDateTime());
+        }
+
+        return student;
+    }
+
+    /**
+     * Turn user input into a LIKE prefix pattern, escaping LIKE wildcards
+     * @param prefix Literal prefix
+     * @return Pattern matching values that start with prefix
+     */
+    private static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
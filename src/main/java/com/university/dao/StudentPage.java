@@ -0,0 +1,32 @@
+package com.university.dao;
+
+import com.university.model.Student;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated student listing
+ * Pass getLastStudent() back to StudentDAO.getStudentsPage to fetch the next page
+ */
+public class StudentPage {
+    private final List<Student> students;
+    private final boolean hasMore;
+
+    public StudentPage(List<Student> students, boolean hasMore) {
+        this.students = students;
+        this.hasMore = hasMore;
+    }
+
+    public List<Student> getStudents() { return students; }
+
+    public boolean hasMore() { return hasMore; }
+
+    public boolean isEmpty() { return students.isEmpty(); }
+
+    /**
+     * @return Last student on this page (the seek position for the next page), or null if empty
+     */
+    public Student getLastStudent() {
+        return students.isEmpty() ? null : students.get(students.size() - 1);
+    }
+}
@@ -0,0 +1,247 @@
+package com.university.dao;
+
+import com.university.cache.SeatLedger;
+import com.university.cache.Waitlists;
+import com.university.database.DatabaseConnection;
+import com.university.database.UnitOfWork;
+import com.university.model.WaitlistEntry;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data Access Object for course waitlists
+ * Entries are stored in the waitlist table and served from an in-memory Waitlists
+ * loaded on first use. Seats freed by dropped registrations are handed to a
+ * WaitlistPromoter, which moves the head of each waitlist into them in batches.
+ */
+public class WaitlistDAO {
+    static final String JOIN_SQL = "INSERT INTO waitlist (student_id, course_id, priority_class) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE waitlist_id = LAST_INSERT_ID(waitlist_id)";
+    static final String ENTRY_BY_ID_SQL =
+            "SELECT waitlist_id, student_id, course_id, priority_class, enqueued_at FROM waitlist WHERE waitlist_id = ?";
+    static final String LEAVE_SQL = "DELETE FROM waitlist WHERE student_id = ? AND course_id = ?";
+    static final String DELETE_BY_ID_SQL = "DELETE FROM waitlist WHERE waitlist_id = ?";
+    static final String ALL_ENTRIES_SQL =
+            "SELECT waitlist_id, student_id, course_id, priority_class, enqueued_at FROM waitlist";
+
+    private static final Waitlists WAITLISTS = new Waitlists();
+    private static volatile boolean waitlistsLoaded = false;
+
+    // Freed seats are collected for up to waitlist.maxDelayMillis, at most waitlist.batchSize per transaction
+    private static final WaitlistPromoter PROMOTER = new WaitlistPromoter(
+            Integer.getInteger("waitlist.batchSize", 500),
+            Long.getLong("waitlist.maxDelayMillis", 200));
+
+    /**
+     * Put a student on a course's waitlist
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @param priorityClass WaitlistEntry.PRIORITY or WaitlistEntry.STANDARD
+     * @return CREATED with the new entry's ID, ALREADY_EXISTS if the student was already waiting, or FAILED
+     */
+    public InsertResult joinWaitlist(int studentId, int courseId, int priorityClass) {
+        Waitlists waitlists = getWaitlists();
+        InsertResult result = InsertResult.failed();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(JOIN_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+            pstmt.setInt(3, priorityClass);
+            result = InsertResults.fromUpsert(conn, pstmt, pstmt.executeUpdate());
+            if (!result.isFailed()) {
+                WaitlistEntry entry = findEntry(conn, result.getId());
+                if (entry != null) {
+                    UnitOfWork.afterCommit(() -> waitlists.add(entry));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error joining waitlist: " + e.getMessage());
+            e.printStackTrace();
+            return InsertResult.failed();
+        }
+
+        // A seat may have come free between the failed registration and now
+        if (result.isCreated()) {
+            UnitOfWork.afterCommit(() -> {
+                if (RegistrationDAO.getAvailableSeats(courseId) != 0) {
+                    promoteWaitlisted(courseId);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Take a student off a course's waitlist
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return true if the student was waiting
+     */
+    public boolean leaveWaitlist(int studentId, int courseId) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LEAVE_SQL)) {
+
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseId);
+            int removed = pstmt.executeUpdate();
+            UnitOfWork.afterCommit(() -> getWaitlists().remove(studentId, courseId));
+            return removed > 0;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error leaving waitlist: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * @param studentId Student ID
+     * @param courseId Course ID
+     * @return 1 if the student is next in line, 0 if not waiting
+     */
+    public int getPosition(int studentId, int courseId) {
+        return getWaitlists().getPosition(studentId, courseId);
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return Every course the student is waiting for, by course ID
+     */
+    public List<WaitlistEntry> getEntriesForStudent(int studentId) {
+        return getWaitlists().getEntriesForStudent(studentId);
+    }
+
+    /**
+     * @param courseId Course ID
+     * @return Number of students waiting for the course
+     */
+    public static int getWaitingCount(int courseId) {
+        return getWaitlists().getWaitingCount(courseId);
+    }
+
+    /**
+     * Get the waitlists, reading them from the database on first use
+     * @return Waitlists; empty if they could not be read
+     */
+    public static Waitlists getWaitlists() {
+        if (!waitlistsLoaded) {
+            reloadWaitlists();
+        }
+        return WAITLISTS;
+    }
+
+    /**
+     * Replace the in-memory waitlists with the waitlist table
+     * @return true if the waitlists were read
+     */
+    public static synchronized boolean reloadWaitlists() {
+        List<WaitlistEntry> entries = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(ALL_ENTRIES_SQL);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapEntry(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error loading waitlists: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        WAITLISTS.replaceAll(entries);
+        waitlistsLoaded = true;
+        return true;
+    }
+
+    /**
+     * Offer every free seat on a course to its waitlist, e.g. after its capacity was raised
+     * @param courseId Course ID
+     * @return Number of seats handed to the promoter
+     */
+    public static int promoteWaitlisted(int courseId) {
+        SeatLedger seats = RegistrationDAO.getSeatLedger();
+        int offered = 0;
+        for (int waiting = getWaitingCount(courseId); offered < waiting && seats.tryReserve(courseId); offered++) {
+            if (!PROMOTER.submit(courseId)) {
+                seats.release(courseId);
+                break;
+            }
+        }
+        return offered;
+    }
+
+    /**
+     * Offer the free seats of every course with a waitlist
+     * @return Number of seats handed to the promoter
+     */
+    public static int promoteAllWaitlisted() {
+        int offered = 0;
+        for (Integer courseId : getWaitlists().getCoursesWithWaiters()) {
+            offered += promoteWaitlisted(courseId);
+        }
+        return offered;
+    }
+
+    /**
+     * @return Promoter, for statistics
+     */
+    public static WaitlistPromoter getPromoter() {
+        return PROMOTER;
+    }
+
+    /**
+     * Promote into the seats already freed and stop; call before closing the pool
+     * @return true if every freed seat was handled
+     */
+    public static boolean shutdownPromotions() {
+        boolean drained = PROMOTER.close(TimeUnit.SECONDS.toMillis(30));
+        if (!drained) {
+            System.err.println("⚠️ Timed out promoting waitlisted students into " + PROMOTER.getQueuedCount()
+                    + " freed seats.");
+        }
+        return drained;
+    }
+
+    /**
+     * Route a seat freed by a dropped registration: to the waitlist if anyone is waiting,
+     * otherwise back to general registration
+     * @param courseId Course ID
+     */
+    static void seatFreed(int courseId) {
+        if (getWaitingCount(courseId) == 0 || !PROMOTER.submit(courseId)) {
+            RegistrationDAO.releaseSeat(courseId);
+        }
+    }
+
+    private static WaitlistEntry findEntry(Connection conn, int waitlistId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ENTRY_BY_ID_SQL)) {
+            pstmt.setInt(1, waitlistId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapEntry(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Map the current result set row to a WaitlistEntry object
+     * @param rs Result set positioned on a waitlist row
+     * @return Populated WaitlistEntry object
+     */
+    private static WaitlistEntry mapEntry(ResultSet rs) throws SQLException {
+        Timestamp enqueuedAt = rs.getTimestamp("enqueued_at");
+        return new WaitlistEntry(rs.getInt("waitlist_id"), rs.getInt("student_id"), rs.getInt("course_id"),
+                rs.getInt("priority_class"), enqueuedAt != null ? enqueuedAt.toLocalDateTime() : null);
+    }
+}
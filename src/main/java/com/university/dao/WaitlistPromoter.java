@@ -0,0 +1,281 @@
+package com.university.dao;
+
+import com.university.cache.EnrollmentIndex;
+import com.university.cache.Waitlists;
+import com.university.database.DatabaseConnection;
+import com.university.model.WaitlistEntry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves waitlisted students into freed seats in batches
+ * Every freed seat is queued as its course ID. A writer thread collects up to batchSize
+ * of them, or whatever arrived within maxDelayMillis of the first, and promotes the
+ * head of each course's waitlist in one transaction: take the seat, insert the
+ * registration and delete the waitlist entry, so each promotion happens completely or
+ * not at all, and a rush of drops at the add/drop deadline costs a few commits.
+ *
+ * A queued seat is held back from the seat ledger, so ordinary registrations in this
+ * process cannot take it ahead of the waitlist. Seats nobody could be promoted into go
+ * back to the ledger. Entries for students who registered some other way are deleted.
+ */
+public final class WaitlistPromoter {
+    private final BlockingQueue<Integer> freedSeats = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+
+    private final LongAdder promoted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+
+    /**
+     * @param batchSize Maximum freed seats handled per transaction
+     * @param maxDelayMillis Longest a freed seat waits for its batch to fill
+     */
+    public WaitlistPromoter(int batchSize, long maxDelayMillis) {
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.writer = new Thread(this::run, "waitlist-promoter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Hand a freed seat to the waitlist
+     * @param courseId Course whose seat was freed; the seat must not be in the seat ledger
+     * @return false if the promoter is shutting down and the seat was not taken
+     */
+    public boolean submit(int courseId) {
+        if (!accepting) {
+            return false;
+        }
+        freedSeats.add(courseId);
+        return true;
+    }
+
+    /**
+     * Stop accepting seats and promote into the ones already queued
+     * @param timeoutMillis Longest to wait for the writer to finish
+     * @return true if every queued seat was handled
+     */
+    public boolean close(long timeoutMillis) {
+        accepting = false;
+        writer.interrupt();
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            return false;
+        }
+        Integer courseId;
+        while ((courseId = freedSeats.poll()) != null) {
+            RegistrationDAO.releaseSeat(courseId);
+        }
+        return true;
+    }
+
+    public int getQueuedCount() { return freedSeats.size(); }
+
+    public long getPromotedCount() { return promoted.sum(); }
+
+    public long getBatchCount() { return batches.sum(); }
+
+    /**
+     * @return Freed seats that went back to the seat ledger because nobody was waiting
+     */
+    public long getReturnedCount() { return returned.sum(); }
+
+    private void run() {
+        List<Integer> batch = new ArrayList<>(batchSize);
+        while (accepting || !freedSeats.isEmpty()) {
+            try {
+                Integer first = freedSeats.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Integer next = remaining > 0 ? freedSeats.poll(remaining, TimeUnit.NANOSECONDS) : freedSeats.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // close(): stop waiting for the batch to fill and promote what there is
+                freedSeats.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                promote(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Fill a batch of freed seats from the waitlists in one transaction
+     */
+    private void promote(List<Integer> batch) {
+        // Course ID order: the same lock order as every other registration path
+        Map<Integer, Integer> seatsByCourse = new TreeMap<>();
+        for (Integer courseId : batch) {
+            seatsByCourse.merge(courseId, 1, Integer::sum);
+        }
+
+        Waitlists waitlists = WaitlistDAO.getWaitlists();
+        EnrollmentIndex index = RegistrationDAO.getEnrollmentIndex();
+        List<WaitlistEntry> candidates = new ArrayList<>();
+        List<WaitlistEntry> stale = new ArrayList<>();
+        seatsByCourse.forEach((courseId, seats) -> {
+            int chosen = 0;
+            for (WaitlistEntry entry : waitlists.getQueue(courseId)) {
+                if (chosen == seats) {
+                    break;
+                }
+                if (index != null && index.contains(entry.getStudentId(), courseId)) {
+                    stale.add(entry);
+                } else {
+                    candidates.add(entry);
+                    chosen++;
+                }
+            }
+        });
+
+        List<WaitlistEntry> placed = new ArrayList<>(candidates.size());
+        Set<Integer> fullCourses = new HashSet<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                returnSeats(seatsByCourse, Map.of(), Set.of());
+                return;
+            }
+            conn.setAutoCommit(false);
+            try {
+                if (!candidates.isEmpty()) {
+                    try (PreparedStatement takeSeat = conn.prepareStatement(RegistrationDAO.TAKE_SEAT_SQL)) {
+                        for (WaitlistEntry entry : candidates) {
+                            takeSeat.setInt(1, entry.getCourseId());
+                            takeSeat.addBatch();
+                        }
+                        int[] taken = takeSeat.executeBatch();
+                        for (int i = 0; i < candidates.size(); i++) {
+                            if (i < taken.length && taken[i] == 0) {
+                                fullCourses.add(candidates.get(i).getCourseId());
+                            } else {
+                                placed.add(candidates.get(i));
+                            }
+                        }
+                    }
+                }
+
+                if (!placed.isEmpty()) {
+                    // Registered by another session since the index was read: stale, seat given back
+                    List<Long> keys = new ArrayList<>(placed.size());
+                    for (WaitlistEntry entry : placed) {
+                        keys.add(RegistrationDAO.registrationKey(entry.getStudentId(), entry.getCourseId()));
+                    }
+                    Set<Long> existing = RegistrationDAO.findExistingRegistrations(conn, keys);
+                    List<Integer> duplicates = new ArrayList<>();
+                    for (Iterator<WaitlistEntry> it = placed.iterator(); it.hasNext(); ) {
+                        WaitlistEntry entry = it.next();
+                        long key = RegistrationDAO.registrationKey(entry.getStudentId(), entry.getCourseId());
+                        if (existing.contains(key)) {
+                            duplicates.add(entry.getCourseId());
+                            stale.add(entry);
+                            it.remove();
+                        }
+                    }
+                    RegistrationDAO.releaseSeats(conn, duplicates);
+
+                    if (!placed.isEmpty()) {
+                        try (PreparedStatement insert = conn.prepareStatement(RegistrationDAO.BATCH_REGISTER_SQL)) {
+                            for (WaitlistEntry entry : placed) {
+                                insert.setInt(1, entry.getStudentId());
+                                insert.setInt(2, entry.getCourseId());
+                                insert.addBatch();
+                            }
+                            insert.executeBatch();
+                        }
+                    }
+                }
+
+                if (!placed.isEmpty() || !stale.isEmpty()) {
+                    try (PreparedStatement delete = conn.prepareStatement(WaitlistDAO.DELETE_BY_ID_SQL)) {
+                        for (WaitlistEntry entry : placed) {
+                            delete.setInt(1, entry.getWaitlistId());
+                            delete.addBatch();
+                        }
+                        for (WaitlistEntry entry : stale) {
+                            delete.setInt(1, entry.getWaitlistId());
+                            delete.addBatch();
+                        }
+                        delete.executeBatch();
+                    }
+                }
+
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error promoting waitlisted students: " + e.getMessage());
+            e.printStackTrace();
+            // Nobody moved; the seats go back to general registration and the entries stay
+            returnSeats(seatsByCourse, Map.of(), Set.of());
+            return;
+        }
+
+        batches.increment();
+        Map<Integer, Integer> placedByCourse = new TreeMap<>();
+        for (WaitlistEntry entry : stale) {
+            waitlists.remove(entry.getStudentId(), entry.getCourseId());
+        }
+        for (WaitlistEntry entry : placed) {
+            waitlists.remove(entry.getStudentId(), entry.getCourseId());
+            RegistrationDAO.fireRegistered(entry.getStudentId(), entry.getCourseId());
+            placedByCourse.merge(entry.getCourseId(), 1, Integer::sum);
+            promoted.increment();
+        }
+        returnSeats(seatsByCourse, placedByCourse, fullCourses);
+    }
+
+    /**
+     * Give seats nobody was promoted into back to the seat ledger, or mark their course
+     * full when the database had no seat left for a candidate
+     */
+    private void returnSeats(Map<Integer, Integer> seatsByCourse, Map<Integer, Integer> placedByCourse,
+                             Set<Integer> fullCourses) {
+        seatsByCourse.forEach((courseId, seats) -> {
+            if (fullCourses.contains(courseId)) {
+                RegistrationDAO.markCourseFull(courseId);
+                return;
+            }
+            for (int i = placedByCourse.getOrDefault(courseId, 0); i < seats; i++) {
+                RegistrationDAO.releaseSeat(courseId);
+                returned.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,270 @@
+package com.university.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded JDBC connection pool for Student Management System
+ * Keeps between minSize and maxSize physical connections open and hands out
+ * proxies whose close() returns the connection to the pool instead of closing it
+ */
+public final class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently returned first so hot connections stay warm
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    // Connections currently borrowed, used for leak detection
+    private final Map<PooledConnection, Boolean> borrowed = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Create a pool and open the minimum number of connections
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param minSize Connections kept open even when idle
+     * @param maxSize Upper bound on open connections
+     * @param borrowTimeoutMillis How long getConnection() waits for a free connection
+     * @param idleTimeoutMillis Idle time after which connections above minSize are closed
+     * @param leakThresholdMillis Borrow time after which a connection is reported as leaked, 0 to disable
+     * @param statementCacheSize Prepared statements cached per connection, 0 to disable
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_INTERVAL_MILLIS, MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout for one to become free
+     * @return Connection proxy; closing it returns the connection to the pool
+     * @throws SQLException if the pool is exhausted or a connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                // Validate on borrow so callers never receive a dead connection
+                if (pooled.isUsable(VALIDATION_TIMEOUT_SECONDS)) {
+                    break;
+                }
+                discard(pooled);
+            }
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+
+            borrowed.put(pooled, Boolean.TRUE);
+            return pooled.lease(leakThresholdMillis > 0);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a connection to the pool; called by the proxy's close()
+     * @param pooled Connection being returned
+     */
+    void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (shutdown || !pooled.resetForReuse()) {
+                discard(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close all connections and stop background maintenance
+     */
+    public void shutdown() {
+        shutdown = true;
+        maintenance.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        // Borrowed connections are closed when their holders hand them back
+    }
+
+    /**
+     * @return Number of physical connections currently open
+     */
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return Number of open connections waiting in the pool
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * @return Number of connections currently borrowed
+     */
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    /**
+     * @return Prepared statement cache hits across all open connections
+     */
+    public long getStatementCacheHits() {
+        return sumOverConnections(StatementCache::getHits);
+    }
+
+    /**
+     * @return Prepared statement cache misses across all open connections
+     */
+    public long getStatementCacheMisses() {
+        return sumOverConnections(StatementCache::getMisses);
+    }
+
+    /**
+     * @return Prepared statements evicted from the per-connection caches
+     */
+    public long getStatementCacheEvictions() {
+        return sumOverConnections(StatementCache::getEvictions);
+    }
+
+    private long sumOverConnections(ToLongFunction<StatementCache> counter) {
+        long total = 0;
+        for (PooledConnection pooled : idle) {
+            total += counter.applyAsLong(pooled.getStatementCache());
+        }
+        for (PooledConnection pooled : borrowed.keySet()) {
+            total += counter.applyAsLong(pooled.getStatementCache());
+        }
+        return total;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(this, physical, statementCacheSize);
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    private void fillToMinimum() {
+        while (!shutdown && totalConnections.get() < minSize) {
+            try {
+                idle.offerLast(openConnection());
+            } catch (SQLException e) {
+                System.err.println("❌ Could not pre-open pooled connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Evict connections idle past the idle timeout and report suspected leaks.
+     * Runs on a fixed-delay schedule, where an escaping exception would cancel every later run.
+     */
+    private void runMaintenance() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Oldest idle connections sit at the tail of the deque
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && totalConnections.get() > minSize) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.getLastReturnedAt() > idleTimeoutMillis && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+            fillToMinimum();
+
+            if (leakThresholdMillis <= 0) {
+                return;
+            }
+            for (PooledConnection pooled : borrowed.keySet()) {
+                long borrowedAt = pooled.getBorrowedAt();
+                if (now - borrowedAt > leakThresholdMillis && pooled.markLeakReported()) {
+                    // Read once: the connection may be returned, clearing the site, at any moment
+                    Throwable borrowSite = pooled.getBorrowSite();
+                    System.err.println("⚠️ Possible connection leak: connection held for "
+                            + (now - borrowedAt) + " ms." + (borrowSite != null ? " Borrowed at:" : ""));
+                    if (borrowSite != null) {
+                        borrowSite.printStackTrace();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("❌ Connection pool maintenance failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,36 +1,47 @@
 package com.university.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * Database connection utility class for Student Management System
- * Handles MySQL database connectivity using JDBC
+ * Handles MySQL database connectivity using JDBC through a bounded connection pool
  */
 public class DatabaseConnection {
     // Database configuration constants
-    private static final String URL = "jdbc:mysql://localhost:3306/student_management_system";
+    // rewriteBatchedStatements lets the driver send addBatch() inserts as multi-row INSERTs;
+    // useCursorFetch makes setFetchSize() stream large results through a server-side cursor;
+    // useAffectedRows reports rows actually changed instead of rows matched, so a no-op
+    // ON DUPLICATE KEY UPDATE counts 0 and upserts can tell a new row from an existing one
+    private static final String URL = "jdbc:mysql://localhost:3306/student_management_system"
+            + "?rewriteBatchedStatements=true&useCursorFetch=true&useAffectedRows=true";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "11202004"; // Your MySQL password
 
-    private static Connection connection = null;
+    // Pool configuration, overridable with -Ddb.pool.* system properties
+    private static final int POOL_MIN_SIZE = Integer.getInteger("db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = Long.getLong("db.pool.borrowTimeoutMillis", 5_000);
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = Long.getLong("db.pool.idleTimeoutMillis", 600_000);
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = Long.getLong("db.pool.leakThresholdMillis", 60_000);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("db.pool.statementCacheSize", 64);
+
+    private static volatile ConnectionPool pool = null;
 
     /**
-     * Establishes and returns database connection
+     * Borrows a connection from the pool, creating the pool on first use.
+     * Closing the returned connection hands it back to the pool.
+     * Inside a UnitOfWork the unit's connection is returned instead, and closing it
+     * leaves the unit's transaction open.
      * @return Connection object or null if connection fails
      */
     public static Connection getConnection() {
         try {
-            // Check if connection is null or closed
-            if (connection == null || connection.isClosed()) {
-                // Load MySQL JDBC driver
-                Class.forName("com.mysql.cj.jdbc.Driver");
-
-                // Establish connection
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                System.out.println("✅ Database connected successfully!");
+            UnitOfWork unit = UnitOfWork.current();
+            if (unit != null) {
+                return unit.join(getPool());
             }
+            return getPool().borrow();
         } catch (ClassNotFoundException e) {
             System.err.println("❌ MySQL JDBC Driver not found: " + e.getMessage());
             e.printStackTrace();
@@ -38,21 +49,46 @@ public class DatabaseConnection {
             System.err.println("❌ Database connection failed: " + e.getMessage());
             e.printStackTrace();
         }
-        return connection;
+        return null;
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first use
+     * @return Connection pool
+     * @throws ClassNotFoundException if the MySQL JDBC driver is missing
+     */
+    public static ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    // Load MySQL JDBC driver once for the lifetime of the pool
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+
+                    current = new ConnectionPool(URL, USERNAME, PASSWORD,
+                            POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MILLIS,
+                            POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE);
+                    pool = current;
+                    if (current.getTotalConnections() > 0) {
+                        System.out.println("✅ Database connected successfully!");
+                    }
+                }
+            }
+        }
+        return current;
     }
 
     /**
-     * Closes the database connection
+     * Closes all pooled database connections
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
                 System.out.println("🔒 Database connection closed successfully.");
             }
-        } catch (SQLException e) {
-            System.err.println("❌ Error closing database connection: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -61,7 +97,11 @@ public class DatabaseConnection {
      * @return true if connection successful, false otherwise
      */
     public static boolean testConnection() {
-        Connection testConn = getConnection();
-        return testConn != null;
+        try (Connection testConn = getConnection()) {
+            return testConn != null;
+        } catch (SQLException e) {
+            System.err.println("❌ Error closing test connection: " + e.getMessage());
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
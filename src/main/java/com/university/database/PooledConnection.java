@@ -0,0 +1,167 @@
+package com.university.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * A physical connection owned by the ConnectionPool
+ * Each borrow hands out a fresh proxy so that a stale reference kept after
+ * close() cannot touch a connection that now belongs to another caller
+ */
+class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+
+    private volatile long borrowedAt;
+    private volatile long lastReturnedAt = System.currentTimeMillis();
+    private volatile Throwable borrowSite;
+    private volatile boolean leakReported;
+
+    PooledConnection(ConnectionPool pool, Connection physical, int statementCacheSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = new StatementCache(statementCacheSize);
+    }
+
+    /**
+     * Hand the connection to a new borrower
+     * @param captureBorrowSite Whether to record the caller's stack for leak reports
+     * @return Connection proxy for this borrow
+     */
+    Connection lease(boolean captureBorrowSite) {
+        borrowedAt = System.currentTimeMillis();
+        borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+        leakReported = false;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease());
+    }
+
+    /**
+     * Check the physical connection is still alive
+     * @param timeoutSeconds Validation timeout
+     * @return true if the connection can be handed out
+     */
+    boolean isUsable(int timeoutSeconds) {
+        try {
+            return !physical.isClosed() && physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undo per-borrow state so the next borrower sees a clean connection
+     * @return false if the connection is broken and should be discarded
+     */
+    boolean resetForReuse() {
+        lastReturnedAt = System.currentTimeMillis();
+        borrowSite = null;
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                // Never let an unfinished transaction leak into the next borrower
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        statementCache.clear();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("❌ Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    long getBorrowedAt() { return borrowedAt; }
+    long getLastReturnedAt() { return lastReturnedAt; }
+    Throwable getBorrowSite() { return borrowSite; }
+    StatementCache getStatementCache() { return statementCache; }
+
+    /**
+     * @return true the first time it is called for the current borrow
+     */
+    boolean markLeakReported() {
+        if (leakReported) {
+            return false;
+        }
+        leakReported = true;
+        return true;
+    }
+
+    /**
+     * Invocation handler for a single borrow of the physical connection
+     */
+    private class Lease implements InvocationHandler, StatementCache.LeaseState {
+        private volatile boolean closed = false;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if ("prepareStatement".equals(method.getName()) && isCacheable(method)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return statementCache.prepare((Connection) proxy, physical, (String) args[0],
+                        autoGeneratedKeys, this);
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached;
+         * statements with custom cursor types or key columns are prepared directly
+         */
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.university.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs EXPLAIN on a set of statements and fails when one of them does a full table scan
+ * Statements that intentionally read a whole table, e.g. the report join, declare the
+ * tables they are allowed to scan; every other table access must use an index.
+ * Plans depend on table statistics, so run the check against representative data:
+ * on near-empty tables the optimizer may legitimately prefer a scan.
+ */
+public class QueryPlanVerifier {
+    private final List<CheckedQuery> queries = new ArrayList<>();
+
+    /**
+     * Add a statement that must not scan any table
+     * @param name Label used in the report
+     * @param sql Statement text, with ? placeholders
+     * @param parameters Sample values for the placeholders
+     * @return This verifier
+     */
+    public QueryPlanVerifier check(String name, String sql, Object... parameters) {
+        queries.add(new CheckedQuery(name, sql, Set.of(), parameters));
+        return this;
+    }
+
+    /**
+     * Add a bulk statement that is expected to read some tables in full
+     * @param name Label used in the report
+     * @param sql Statement text, with ? placeholders
+     * @param fullScanTables Tables or aliases, as EXPLAIN shows them, that may be scanned
+     * @param parameters Sample values for the placeholders
+     * @return This verifier
+     */
+    public QueryPlanVerifier checkBulkScan(String name, String sql, Set<String> fullScanTables, Object... parameters) {
+        queries.add(new CheckedQuery(name, sql, fullScanTables, parameters));
+        return this;
+    }
+
+    /**
+     * EXPLAIN every statement and print its plan
+     * @return true if no statement does an unexpected full table scan and all could be explained
+     */
+    public boolean verify() {
+        int failures = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+
+            System.out.println("\n🔍 Verifying query plans for " + queries.size() + " statements...");
+            for (CheckedQuery query : queries) {
+                try {
+                    List<String> problems = new ArrayList<>();
+                    String plan = explain(conn, query, problems);
+                    if (problems.isEmpty()) {
+                        System.out.println("✅ " + query.name + ": " + plan);
+                    } else {
+                        failures++;
+                        System.out.println("❌ " + query.name + ": " + plan);
+                        problems.forEach(problem -> System.out.println("      " + problem));
+                    }
+                } catch (SQLException e) {
+                    failures++;
+                    System.out.println("❌ " + query.name + ": EXPLAIN failed: " + e.getMessage());
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error verifying query plans: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        if (failures == 0) {
+            System.out.println("🎉 All " + queries.size() + " statements use indexes as expected.");
+        } else {
+            System.out.println("⚠️ " + failures + " of " + queries.size() + " statements failed the plan check.");
+        }
+        return failures == 0;
+    }
+
+    /**
+     * @return Compact plan summary, one "table:access_type(key)" entry per plan row
+     */
+    private static String explain(Connection conn, CheckedQuery query, List<String> problems) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            for (int i = 0; i < query.parameters.length; i++) {
+                pstmt.setObject(i + 1, query.parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String selectType = rs.getString("select_type");
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    if (table == null) {
+                        continue; // e.g. "No tables used" or "Impossible WHERE"
+                    }
+
+                    if (plan.length() > 0) {
+                        plan.append(", ");
+                    }
+                    plan.append(table).append(':').append(type);
+                    if (key != null) {
+                        plan.append('(').append(key).append(')');
+                    }
+
+                    // INSERT rows report type ALL but do not read the table
+                    boolean insert = "INSERT".equals(selectType) || "REPLACE".equals(selectType);
+                    if ("ALL".equals(type) && !insert && !query.fullScanTables.contains(table)) {
+                        problems.add("full table scan of " + table + " (about " + rs.getLong("rows")
+                                + " rows, possible keys: " + rs.getString("possible_keys") + ")");
+                    }
+                }
+            }
+        }
+        return plan.length() > 0 ? plan.toString() : "no table access";
+    }
+
+    private static class CheckedQuery {
+        final String name;
+        final String sql;
+        final Set<String> fullScanTables;
+        final Object[] parameters;
+
+        CheckedQuery(String name, String sql, Set<String> fullScanTables, Object[] parameters) {
+            this.name = name;
+            this.sql = sql;
+            this.fullScanTables = fullScanTables;
+            this.parameters = parameters;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.university.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned schema migrations for the Student Management System
+ * Applied versions are recorded in the schema_version table. Every step is idempotent
+ * (CREATE TABLE IF NOT EXISTS, columns and indexes added only when missing),
+ * so an existing database created from the SQL dump is brought up to date in place,
+ * and a migration interrupted half-way can simply be run again.
+ */
+public class SchemaManager {
+    private static final String LOCK_NAME = "student_management_system.schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    /** Set every course's seats_taken from its registrations; also used to repair drift */
+    public static final String RECOUNT_SEATS_SQL = """
+            UPDATE courses c
+            SET c.seats_taken = (SELECT COUNT(*) FROM registrations r WHERE r.course_id = c.course_id)
+            """;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create students, courses and registrations tables",
+                    ddl("""
+                            CREATE TABLE IF NOT EXISTS students (
+                                student_id INT AUTO_INCREMENT PRIMARY KEY,
+                                first_name VARCHAR(50) NOT NULL,
+                                last_name VARCHAR(50) NOT NULL,
+                                email VARCHAR(100) NOT NULL,
+                                phone VARCHAR(20),
+                                date_of_birth DATE,
+                                registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                            ) ENGINE = InnoDB
+                            """),
+                    ddl("""
+                            CREATE TABLE IF NOT EXISTS courses (
+                                course_id INT AUTO_INCREMENT PRIMARY KEY,
+                                course_code VARCHAR(10) NOT NULL,
+                                course_name VARCHAR(100) NOT NULL,
+                                credits INT NOT NULL,
+                                department VARCHAR(50),
+                                semester VARCHAR(20)
+                            ) ENGINE = InnoDB
+                            """),
+                    ddl("""
+                            CREATE TABLE IF NOT EXISTS registrations (
+                                registration_id INT AUTO_INCREMENT PRIMARY KEY,
+                                student_id INT NOT NULL,
+                                course_id INT NOT NULL,
+                                enrollment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                grade VARCHAR(2),
+                                CONSTRAINT fk_registrations_student FOREIGN KEY (student_id)
+                                    REFERENCES students (student_id) ON DELETE CASCADE,
+                                CONSTRAINT fk_registrations_course FOREIGN KEY (course_id)
+                                    REFERENCES courses (course_id) ON DELETE CASCADE
+                            ) ENGINE = InnoDB
+                            """)),
+            new Migration(2, "Add the indexes the DAO queries rely on",
+                    // emailExists, findExistingEmails and the insert-if-absent upsert
+                    index("students", "uk_students_email", true, "email"),
+                    // Ordered listing and keyset pagination; InnoDB appends student_id to every secondary index
+                    index("students", "idx_students_name", false, "last_name", "first_name"),
+                    // Second half of the name prefix filter (last_name LIKE ? OR first_name LIKE ?)
+                    index("students", "idx_students_first_name", false, "first_name"),
+                    // Catalogue sort and lookups by code
+                    index("courses", "uk_courses_code", true, "course_code"),
+                    // Duplicate registration guard and all per-student lookups
+                    index("registrations", "uk_registrations_student_course", true, "student_id", "course_id"),
+                    // Per-course lookups and joins from courses
+                    index("registrations", "idx_registrations_course", false, "course_id")),
+            new Migration(3, "Add course capacity and seat counts",
+                    // NULL capacity means no limit
+                    column("courses", "capacity", "INT NULL"),
+                    // Registrations holding a seat; guarded by every registration insert
+                    column("courses", "seats_taken", "INT NOT NULL DEFAULT 0"),
+                    ddl(RECOUNT_SEATS_SQL)),
+            new Migration(4, "Create the course waitlist table",
+                    // Promotion order is priority_class, then waitlist_id (enqueue order)
+                    ddl("""
+                            CREATE TABLE IF NOT EXISTS waitlist (
+                                waitlist_id INT AUTO_INCREMENT PRIMARY KEY,
+                                student_id INT NOT NULL,
+                                course_id INT NOT NULL,
+                                priority_class TINYINT NOT NULL DEFAULT 1,
+                                enqueued_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+                                CONSTRAINT uk_waitlist_student_course UNIQUE (student_id, course_id),
+                                INDEX idx_waitlist_course_order (course_id, priority_class, waitlist_id),
+                                CONSTRAINT fk_waitlist_student FOREIGN KEY (student_id)
+                                    REFERENCES students (student_id) ON DELETE CASCADE,
+                                CONSTRAINT fk_waitlist_course FOREIGN KEY (course_id)
+                                    REFERENCES courses (course_id) ON DELETE CASCADE
+                            ) ENGINE = InnoDB
+                            """))
+    );
+
+    /**
+     * Apply all pending migrations in version order
+     * @return true if the schema is at the latest version, false otherwise
+     */
+    public boolean migrate() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+
+            if (!acquireLock(conn)) {
+                System.err.println("❌ Another process is migrating the database schema. Please try again later.");
+                return false;
+            }
+            try {
+                createVersionTable(conn);
+                int current = readCurrentVersion(conn);
+
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version <= current) {
+                        continue;
+                    }
+                    System.out.println("🛠️ Applying schema migration " + migration.version
+                            + ": " + migration.description);
+                    try {
+                        for (Step step : migration.steps) {
+                            step.apply(conn);
+                        }
+                        recordVersion(conn, migration);
+                    } catch (SQLException e) {
+                        System.err.println("❌ Schema migration " + migration.version + " failed: " + e.getMessage());
+                        System.err.println("   Fix the cause (e.g. duplicate emails or registrations) and run the migration again.");
+                        return false;
+                    }
+                    current = migration.version;
+                }
+
+                System.out.println("✅ Database schema is up to date (version " + current + ").");
+                return true;
+
+            } finally {
+                releaseLock(conn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error migrating database schema: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Read the schema version recorded in the database
+     * @return Applied version, 0 if no migration has been applied, -1 if it could not be read
+     */
+    public int getCurrentVersion() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return -1;
+            }
+            createVersionTable(conn);
+            return readCurrentVersion(conn);
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error reading schema version: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * @return Version the code expects the database to be at
+     */
+    public int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Print the applied version and every known migration
+     */
+    public void printStatus() {
+        int current = getCurrentVersion();
+        if (current < 0) {
+            return;
+        }
+
+        System.out.println("\n📐 Schema version: " + current + " of " + getLatestVersion());
+        for (Migration migration : MIGRATIONS) {
+            System.out.printf("   %s %d. %s%n",
+                    migration.version <= current ? "✅" : "⏳", migration.version, migration.description);
+        }
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(200) NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    ) ENGINE = InnoDB
+                    """);
+        }
+    }
+
+    private static int readCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Take a named server lock so that two application instances never migrate at the same time
+     */
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Could not release schema lock: " + e.getMessage());
+        }
+    }
+
+    private static Step ddl(String sql) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+        };
+    }
+
+    /**
+     * Create an index unless the table already has one that serves the same lookups:
+     * any index starting with the same columns, or for a unique index, a unique index
+     * on exactly those columns. This keeps differently named indexes from the SQL dump.
+     */
+    private static Step index(String table, String name, boolean unique, String... columns) {
+        List<String> wanted = Arrays.asList(columns);
+        return conn -> {
+            for (Map.Entry<String, IndexInfo> existing : readIndexes(conn, table).entrySet()) {
+                IndexInfo info = existing.getValue();
+                boolean covers = unique
+                        ? info.unique && info.columns.equals(wanted)
+                        : info.columns.size() >= wanted.size()
+                                && info.columns.subList(0, wanted.size()).equals(wanted);
+                if (covers) {
+                    System.out.println("   ✔️ " + table + "(" + String.join(", ", columns)
+                            + ") already indexed by " + existing.getKey());
+                    return;
+                }
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD " + (unique ? "UNIQUE " : "") + "INDEX "
+                        + name + " (" + String.join(", ", columns) + ")");
+            }
+            System.out.println("   ➕ Created index " + name + " on " + table + "(" + String.join(", ", columns) + ")");
+        };
+    }
+
+    /**
+     * Add a column unless the table already has one with that name
+     */
+    private static Step column(String table, String name, String definition) {
+        return conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement("""
+                    SELECT COUNT(*) FROM information_schema.columns
+                    WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                    """)) {
+                pstmt.setString(1, table);
+                pstmt.setString(2, name);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        System.out.println("   ✔️ " + table + "." + name + " already exists");
+                        return;
+                    }
+                }
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + name + " " + definition);
+            }
+            System.out.println("   ➕ Added column " + table + "." + name);
+        };
+    }
+
+    private static Map<String, IndexInfo> readIndexes(Connection conn, String table) throws SQLException {
+        Map<String, IndexInfo> indexes = new LinkedHashMap<>();
+        String sql = """
+                SELECT index_name, non_unique, column_name
+                FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ?
+                ORDER BY index_name, seq_in_index
+                """;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    IndexInfo info = indexes.computeIfAbsent(rs.getString("index_name"),
+                            key -> new IndexInfo());
+                    info.unique = rs.getInt("non_unique") == 0;
+                    // Functional key parts have no column name; keep their position with a
+                    // placeholder that never equals a real column
+                    String column = rs.getString("column_name");
+                    info.columns.add(column != null ? column.toLowerCase() : "(expression)");
+                }
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * One unit of a migration
+     */
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        final int version;
+        final String description;
+        final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = List.of(steps);
+        }
+    }
+
+    private static class IndexInfo {
+        boolean unique;
+        final List<String> columns = new ArrayList<>();
+    }
+}
@@ -0,0 +1,214 @@
+package com.university.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for a single pooled connection
+ * Statements are keyed by SQL text; a statement is removed from the cache while
+ * it is in use and put back when the caller closes it, so two callers on the same
+ * connection never share one statement
+ */
+class StatementCache {
+    // Statement-level setters that change behaviour for the next user of the statement
+    private static final Set<String> STATEFUL_SETTERS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows",
+            "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable");
+
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> available;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity Maximum number of idle statements kept open, 0 disables caching
+     */
+    StatementCache(int capacity) {
+        this.capacity = capacity;
+        this.available = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    evictions.increment();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Prepare a statement through the cache
+     * @param connection Connection proxy handed to the caller, returned by getConnection()
+     * @param physical Physical connection used on a cache miss
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @param lease Tells the statement whether its connection has been returned to the pool
+     * @return Statement proxy whose close() returns the statement to the cache
+     */
+    PreparedStatement prepare(Connection connection, Connection physical, String sql,
+                              int autoGeneratedKeys, LeaseState lease) throws SQLException {
+        if (capacity <= 0) {
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? sql + "\u0000keys" : sql;
+        PreparedStatement statement;
+        synchronized (available) {
+            statement = available.remove(key);
+        }
+
+        if (statement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatement(key, statement, connection, lease));
+    }
+
+    /**
+     * Put a statement back after use, closing it if it cannot be reused
+     */
+    private void checkIn(String key, PreparedStatement statement, boolean reusable) {
+        if (!reusable) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement displaced;
+        synchronized (available) {
+            displaced = available.put(key, statement);
+        }
+        if (displaced != null && displaced != statement) {
+            closeQuietly(displaced);
+        }
+    }
+
+    /**
+     * Drop all cached statements; called when the physical connection is closed
+     */
+    void clear() {
+        synchronized (available) {
+            available.values().forEach(StatementCache::closeQuietly);
+            available.clear();
+        }
+    }
+
+    long getHits() { return hits.sum(); }
+    long getMisses() { return misses.sum(); }
+    long getEvictions() { return evictions.sum(); }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Statement is being discarded anyway
+        }
+    }
+
+    /**
+     * Lets a statement ask whether the connection it came from is still borrowed
+     */
+    interface LeaseState {
+        boolean isClosed();
+    }
+
+    /**
+     * Invocation handler for one checkout of a cached statement
+     */
+    private class CachedStatement implements InvocationHandler {
+        private final String key;
+        private final PreparedStatement statement;
+        private final Connection connection;
+        private final LeaseState lease;
+
+        private ResultSet currentResultSet;
+        private boolean stateChanged = false;
+        private boolean closed = false;
+
+        CachedStatement(String key, PreparedStatement statement, Connection connection, LeaseState lease) {
+            this.key = key;
+            this.statement = statement;
+            this.connection = connection;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (STATEFUL_SETTERS.contains(name)) {
+                stateChanged = true;
+            }
+
+            try {
+                Object result = method.invoke(statement, args);
+                if ("executeQuery".equals(name)) {
+                    // Track the open cursor so it is closed before the statement is reused
+                    currentResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void release() throws SQLException {
+            boolean reusable = !stateChanged && !lease.isClosed();
+            try {
+                if (currentResultSet != null) {
+                    currentResultSet.close();
+                }
+                if (reusable) {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                    statement.clearWarnings();
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            checkIn(key, statement, reusable);
+        }
+    }
+}
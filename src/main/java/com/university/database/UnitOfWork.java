@@ -0,0 +1,325 @@
+package com.university.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A transaction spanning several DAO calls on the current thread
+ * While a unit is open, DatabaseConnection.getConnection() hands every DAO the same
+ * pooled connection with auto-commit off, so the whole unit is committed once:
+ *
+ * <pre>
+ * try (UnitOfWork unit = UnitOfWork.begin()) {
+ *     Student student = studentDAO.getStudentById(studentId);
+ *     registrationDAO.registerStudentForCourses(studentId, courseIds);
+ *     unit.commit();
+ * }
+ * </pre>
+ *
+ * Closing a unit that was not committed rolls it back. A DAO's own transaction inside
+ * the unit becomes a savepoint: its commit() keeps the work for the unit's commit, its
+ * rollback() undoes only its own statements. Caches, listeners and the change journal
+ * must not see work that may still be rolled back, so DAOs defer those updates with
+ * afterCommit(). begin() on a thread that already has a unit joins it; if the inner
+ * unit is closed without commit() the whole unit can only roll back.
+ *
+ * Schema changes commit implicitly in MySQL and must not run inside a unit.
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    // The unit that owns the connection; this for the outermost unit
+    private final UnitOfWork owner;
+    private final List<Runnable> commitHooks;
+    private final List<Runnable> rollbackHooks;
+    private Connection connection;
+    private boolean rollbackOnly = false;
+    private boolean committed = false;
+    private boolean closed = false;
+
+    private UnitOfWork(UnitOfWork owner) {
+        this.owner = owner != null ? owner : this;
+        this.commitHooks = owner != null ? null : new ArrayList<>();
+        this.rollbackHooks = owner != null ? null : new ArrayList<>();
+    }
+
+    /**
+     * Open a unit of work on the current thread, or join the one already open.
+     * No connection is borrowed until a DAO asks for one.
+     * @return Unit to commit, then close
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork current = CURRENT.get();
+        UnitOfWork unit = new UnitOfWork(current != null ? current.owner : null);
+        if (current == null) {
+            CURRENT.set(unit);
+        }
+        return unit;
+    }
+
+    /**
+     * @return true if the current thread has an open unit of work
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Run a task once the current unit of work commits, or now if there is none
+     * @param task Task, e.g. a cache invalidation or listener notification
+     */
+    public static void afterCommit(Runnable task) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            task.run();
+        } else {
+            current.owner.commitHooks.add(task);
+        }
+    }
+
+    /**
+     * Run a task if the current unit of work rolls back; without a unit the work is
+     * already committed and the task is dropped
+     * @param task Task, e.g. giving back a reserved seat
+     */
+    public static void afterRollback(Runnable task) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            current.owner.rollbackHooks.add(task);
+        }
+    }
+
+    /**
+     * Make the unit roll back when it is closed, whatever else commits it
+     */
+    public void setRollbackOnly() {
+        owner.rollbackOnly = true;
+    }
+
+    /**
+     * @return true if the unit can no longer commit
+     */
+    public boolean isRollbackOnly() {
+        return owner.rollbackOnly;
+    }
+
+    /**
+     * Commit the unit. Joined units only mark their part as done; the outermost unit
+     * commits the connection and then runs the afterCommit() tasks.
+     * @throws SQLException if the commit failed or the unit is rollback-only; the unit is
+     *         then rolled back when closed
+     */
+    public void commit() throws SQLException {
+        if (closed || committed) {
+            throw new SQLException("Unit of work is already " + (closed ? "closed" : "committed"));
+        }
+        if (owner != this) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            throw new SQLException("Unit of work is rollback-only");
+        }
+        if (connection != null) {
+            connection.commit();
+        }
+        committed = true;
+        runHooks(commitHooks);
+    }
+
+    /**
+     * Roll back unless committed and hand the connection back to the pool
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (owner != this) {
+            if (!committed) {
+                owner.rollbackOnly = true;
+            }
+            return;
+        }
+
+        CURRENT.remove();
+        if (connection != null) {
+            if (!committed) {
+                try {
+                    connection.rollback();
+                } catch (SQLException e) {
+                    System.err.println("❌ Error rolling back unit of work: " + e.getMessage());
+                }
+            }
+            try {
+                // The pool resets auto-commit for the next borrower
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("❌ Error returning unit of work connection: " + e.getMessage());
+            }
+        }
+        if (!committed) {
+            runHooks(rollbackHooks);
+        }
+    }
+
+    /**
+     * @return The current thread's unit of work, or null
+     */
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Hand out the unit's connection to one DAO call, borrowing it on first use.
+     * Closing the returned handle does not end the unit.
+     * @param pool Pool to borrow from
+     * @return Connection handle joined to the unit
+     */
+    Connection join(ConnectionPool pool) throws SQLException {
+        UnitOfWork unit = owner;
+        if (unit.closed) {
+            throw new SQLException("Unit of work is already closed");
+        }
+        if (unit.connection == null) {
+            Connection borrowed = pool.borrow();
+            borrowed.setAutoCommit(false);
+            unit.connection = borrowed;
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                unit.new Participant());
+    }
+
+    private static void runHooks(List<Runnable> hooks) {
+        for (Runnable hook : hooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Unit of work callback failed: " + e.getMessage());
+            }
+        }
+        hooks.clear();
+    }
+
+    /**
+     * Invocation handler for one DAO's use of the unit's connection. The DAO's own
+     * transaction control is mapped onto a savepoint in the unit's transaction.
+     */
+    private class Participant implements InvocationHandler {
+        private Savepoint savepoint;
+        private boolean returned = false;
+        private boolean committedLast = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        // Work after the DAO's last commit() is discarded, as the pool would do;
+                        // either way the savepoint is released so they do not pile up on the connection
+                        if (savepoint != null) {
+                            try {
+                                guard(() -> {
+                                    if (!committedLast) {
+                                        connection.rollback(savepoint);
+                                    }
+                                    connection.releaseSavepoint(savepoint);
+                                });
+                            } catch (SQLException e) {
+                                System.err.println("❌ Error closing savepoint: " + e.getMessage());
+                            }
+                            savepoint = null;
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWork[" + connection + (returned ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the unit of work");
+            }
+            committedLast = false;
+            switch (method.getName()) {
+                case "getAutoCommit":
+                    return savepoint == null;
+                case "setAutoCommit":
+                    if (!(Boolean) args[0] && savepoint == null) {
+                        guard(() -> savepoint = connection.setSavepoint());
+                    } else if ((Boolean) args[0] && savepoint != null) {
+                        guard(() -> connection.releaseSavepoint(savepoint));
+                        savepoint = null;
+                    }
+                    return null;
+                case "commit":
+                    if (savepoint != null) {
+                        // The next local transaction starts where this one ended
+                        guard(() -> {
+                            connection.releaseSavepoint(savepoint);
+                            savepoint = connection.setSavepoint();
+                        });
+                        committedLast = true;
+                    }
+                    return null;
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        if (savepoint == null) {
+                            throw new SQLException("Cannot roll back in auto-commit mode");
+                        }
+                        guard(() -> connection.rollback(savepoint));
+                        return null;
+                    }
+                    break;
+                case "setReadOnly":
+                case "setTransactionIsolation":
+                    // Fixed for the whole unit once its transaction has started
+                    return null;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * A failed savepoint operation means the server already rolled back the whole
+         * transaction, e.g. after a deadlock, so the unit must not commit what is left
+         */
+        private void guard(SavepointAction action) throws SQLException {
+            try {
+                action.run();
+            } catch (SQLException e) {
+                rollbackOnly = true;
+                throw e;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SavepointAction {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,50 @@
+package com.university.journal;
+
+import java.time.Instant;
+
+/**
+ * One journal record: a committed change to students, courses or registrations
+ */
+public class ChangeEvent {
+    private final long sequence;
+    private final long timestampMillis;
+    private final ChangeType type;
+    private final int firstId;
+    private final int secondId;
+
+    public ChangeEvent(long sequence, long timestampMillis, ChangeType type, int firstId, int secondId) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.firstId = firstId;
+        this.secondId = secondId;
+    }
+
+    /**
+     * @return Position in the journal, starting at 1 with no gaps
+     */
+    public long getSequence() { return sequence; }
+
+    public long getTimestampMillis() { return timestampMillis; }
+
+    /**
+     * @return Change type, or null if written by a newer version that added types
+     */
+    public ChangeType getType() { return type; }
+
+    /**
+     * @return Student ID for student and registration changes, course ID for course changes
+     */
+    public int getFirstId() { return firstId; }
+
+    /**
+     * @return Course ID for registration changes, 0 otherwise
+     */
+    public int getSecondId() { return secondId; }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + Instant.ofEpochMilli(timestampMillis) + " " + type + " " + firstId
+                + (secondId != 0 ? "/" + secondId : "");
+    }
+}
@@ -0,0 +1,400 @@
+package com.university.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of committed changes, stored in a local file
+ * Every record is RECORD_BYTES long and sequence numbers start at 1 without gaps, so
+ * the record for any sequence is found by arithmetic and subscribers can resume from
+ * the last sequence they applied. Each record carries a CRC-32; a record torn by a
+ * crash is cut off when the journal is next opened.
+ *
+ * One process writes a journal at a time, enforced with a file lock. Readers only see
+ * records up to getLastSequence(), which is advanced after a record is fully written.
+ * The file is never compacted; at 32 bytes per change that is 32 MB per million changes.
+ *
+ * Appends and reads come from any thread, including ones that are interrupted to stop
+ * them. A FileChannel is closed for every thread when one is interrupted during I/O, so
+ * the interrupt flag is cleared around each channel call and restored afterwards, and a
+ * channel closed anyway by a late interrupt is reopened and the call retried once.
+ */
+public class ChangeJournal implements AutoCloseable {
+    private static final int MAGIC = 0x53524A4C; // "SRJL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 32;
+
+    private static final Path DEFAULT_PATH = Path.of(System.getProperty("journal.path", "data/changes.journal"));
+    private static final boolean FSYNC = Boolean.getBoolean("journal.fsync");
+
+    private final Path path;
+    private volatile FileChannel channel;
+    private volatile FileLock lock;
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private volatile long lastSequence;
+    private volatile boolean closed;
+
+    private ChangeJournal(Path path, FileChannel channel, FileLock lock, long lastSequence) {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Open a journal for appending, creating it if needed and dropping a torn last record
+     * @param path Journal file
+     * @return Open journal
+     * @throws IOException if the file cannot be opened, is not a journal or is locked by another process
+     */
+    public static ChangeJournal open(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        FileChannel channel = FileChannel.open(absolute,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Journal is in use by another process: " + absolute);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+                channel.write(header, 0);
+                channel.force(true);
+            } else {
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                    throw new IOException("Not a change journal, or an unsupported version: " + absolute);
+                }
+            }
+
+            long lastSequence = recover(channel);
+            return new ChangeJournal(absolute, channel, lock, lastSequence);
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Journal at -Djournal.path (default data/changes.journal), opened on first use;
+     *         null if it could not be opened or -Djournal.enabled=false
+     */
+    public static ChangeJournal getDefault() {
+        return DefaultHolder.JOURNAL;
+    }
+
+    /**
+     * Append to the default journal, if there is one; a failure is reported, not thrown,
+     * because the change it describes is already committed
+     * @param type Change type
+     * @param firstId See ChangeType
+     * @param secondId See ChangeType, 0 if unused
+     */
+    public static void record(ChangeType type, int firstId, int secondId) {
+        ChangeJournal journal = getDefault();
+        if (journal != null) {
+            journal.append(type, firstId, secondId);
+        }
+    }
+
+    /**
+     * Append one event
+     * @param type Change type
+     * @param firstId See ChangeType
+     * @param secondId See ChangeType, 0 if unused
+     * @return Sequence number of the new event, or -1 if it could not be written
+     */
+    public long append(ChangeType type, int firstId, int secondId) {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return -1;
+            }
+            long sequence = lastSequence + 1;
+            recordBuffer.clear();
+            recordBuffer.putLong(sequence).putLong(System.currentTimeMillis())
+                    .putInt(type.getCode()).putInt(firstId).putInt(secondId);
+            crc.reset();
+            crc.update(recordBuffer.array(), 0, RECORD_BYTES - 4);
+            recordBuffer.putInt((int) crc.getValue()).flip();
+
+            withChannel(channel -> {
+                // A retry after a reopen rewrites the whole record
+                recordBuffer.rewind();
+                long position = offsetOf(sequence);
+                while (recordBuffer.hasRemaining()) {
+                    position += channel.write(recordBuffer, position);
+                }
+                if (FSYNC) {
+                    channel.force(false);
+                }
+                return null;
+            });
+            lastSequence = sequence;
+            appended.signalAll();
+            return sequence;
+
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write change journal: " + e.getMessage());
+            return -1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @return Sequence of the newest complete event, 0 if the journal is empty
+     */
+    public long getLastSequence() { return lastSequence; }
+
+    public Path getPath() { return path; }
+
+    /**
+     * @return File size implied by the events written so far
+     */
+    public long getSizeBytes() { return offsetOf(lastSequence + 1); }
+
+    /**
+     * Read events in sequence order
+     * @param fromSequence First sequence to read, 1 for the whole journal
+     * @param maxEvents Maximum number of events to return
+     * @return Events from fromSequence up to the newest, at most maxEvents; empty if there are none yet
+     * @throws IOException if the file cannot be read
+     */
+    public List<ChangeEvent> read(long fromSequence, int maxEvents) throws IOException {
+        long first = Math.max(1, fromSequence);
+        long last = Math.min(lastSequence, first + maxEvents - 1);
+        if (last < first) {
+            return List.of();
+        }
+
+        int count = (int) (last - first + 1);
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_BYTES);
+        long position = offsetOf(first);
+        withChannel(channel -> {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Journal ended before sequence " + last);
+                }
+            }
+            return null;
+        });
+
+        List<ChangeEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int at = i * RECORD_BYTES;
+            events.add(new ChangeEvent(buffer.getLong(at), buffer.getLong(at + 8),
+                    ChangeType.fromCode(buffer.getInt(at + 16)), buffer.getInt(at + 20), buffer.getInt(at + 24)));
+        }
+        return events;
+    }
+
+    /**
+     * Wait until an event newer than a given sequence exists
+     * @param sequence Last sequence already seen
+     * @param timeout Maximum wait
+     * @param unit Unit of timeout
+     * @return true if a newer event exists, false on timeout or if the journal was closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitAfter(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        appendLock.lock();
+        try {
+            while (lastSequence <= sequence && !closed) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = appended.awaitNanos(remaining);
+            }
+            return lastSequence > sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Deliver events to a subscriber on a daemon thread, starting at a given sequence and
+     * then following new appends as they are written
+     * @param fromSequence First sequence to deliver, e.g. the last one applied plus one
+     * @param subscriber Receives the events
+     * @return Tailer; close it to stop delivery
+     */
+    public JournalTailer tail(long fromSequence, ChangeSubscriber subscriber) {
+        return new JournalTailer(this, fromSequence, subscriber);
+    }
+
+    boolean isClosed() { return closed; }
+
+    /**
+     * Release the file; appends after this are ignored
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        FileChannel current = channel;
+        try {
+            if (current.isOpen()) {
+                current.force(true);
+                lock.release();
+            }
+        } finally {
+            current.close();
+        }
+    }
+
+    /**
+     * Run channel I/O with the caller's interrupt flag cleared, so interrupting a thread
+     * that happens to be journaling does not close the channel for everyone
+     * @param io Channel operation; must be safe to run again from the start
+     * @return Result of io
+     * @throws IOException if the operation failed, also after reopening the channel
+     */
+    private <T> T withChannel(ChannelIo<T> io) throws IOException {
+        boolean interrupted = Thread.interrupted();
+        try {
+            FileChannel current = channel;
+            try {
+                return io.run(current);
+            } catch (ClosedChannelException e) {
+                // Closed by an interrupt that arrived during this or another thread's I/O
+                if (closed) {
+                    throw e;
+                }
+                interrupted |= Thread.interrupted();
+                return io.run(reopen(current));
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Replace a channel closed by an interrupt, taking the file lock again
+     * @param broken Channel that was found closed
+     * @return Open channel
+     */
+    private synchronized FileChannel reopen(FileChannel broken) throws IOException {
+        if (channel != broken) {
+            return channel;
+        }
+        FileChannel reopened = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock relocked;
+        try {
+            relocked = reopened.tryLock();
+        } catch (OverlappingFileLockException e) {
+            relocked = null;
+        }
+        if (relocked == null) {
+            reopened.close();
+            throw new IOException("Journal was taken by another process after its channel was closed: " + path);
+        }
+        System.err.println("⚠️ Change journal channel was closed by an interrupt; reopened.");
+        lock = relocked;
+        channel = reopened;
+        return reopened;
+    }
+
+    @FunctionalInterface
+    private interface ChannelIo<T> {
+        T run(FileChannel channel) throws IOException;
+    }
+
+    private static long offsetOf(long sequence) {
+        return HEADER_BYTES + (sequence - 1) * RECORD_BYTES;
+    }
+
+    /**
+     * Find the last intact record, truncating a partial or corrupt tail left by a crash
+     * @return Sequence of the last intact record
+     */
+    private static long recover(FileChannel channel) throws IOException {
+        long records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        CRC32 crc = new CRC32();
+
+        while (records > 0) {
+            record.clear();
+            channel.read(record, offsetOf(records));
+            crc.reset();
+            crc.update(record.array(), 0, RECORD_BYTES - 4);
+            if (record.getLong(0) == records && record.getInt(RECORD_BYTES - 4) == (int) crc.getValue()) {
+                break;
+            }
+            records--;
+        }
+
+        long validSize = offsetOf(records + 1);
+        if (channel.size() > validSize) {
+            System.err.println("⚠️ Change journal had a damaged tail; truncated after sequence " + records);
+            channel.truncate(validSize);
+        }
+        return records;
+    }
+
+    /**
+     * Opens the default journal on first use and closes it at JVM exit
+     */
+    private static final class DefaultHolder {
+        static final ChangeJournal JOURNAL = openDefault();
+
+        private static ChangeJournal openDefault() {
+            if (!Boolean.parseBoolean(System.getProperty("journal.enabled", "true"))) {
+                return null;
+            }
+            try {
+                ChangeJournal journal = open(DEFAULT_PATH);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        journal.close();
+                    } catch (IOException e) {
+                        System.err.println("⚠️ Could not close change journal: " + e.getMessage());
+                    }
+                }, "change-journal-close"));
+                return journal;
+            } catch (IOException e) {
+                System.err.println("⚠️ Change journal disabled: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
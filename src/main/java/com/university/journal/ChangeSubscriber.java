@@ -0,0 +1,14 @@
+package com.university.journal;
+
+/**
+ * Receives journal events in sequence order from a JournalTailer
+ */
+@FunctionalInterface
+public interface ChangeSubscriber {
+
+    /**
+     * Called on the tailer's thread; an exception stops the tailer before this event
+     * @param event Next event
+     */
+    void onChange(ChangeEvent event);
+}
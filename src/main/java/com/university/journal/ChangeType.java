@@ -0,0 +1,39 @@
+package com.university.journal;
+
+/**
+ * Kinds of change recorded in the journal, with the meaning of each event's two IDs
+ */
+public enum ChangeType {
+    /** first = student ID */
+    STUDENT_ADDED(1),
+    /** first = course ID */
+    COURSE_ADDED(2),
+    /** first = student ID, second = course ID */
+    REGISTRATION_ADDED(3),
+    /** first = student ID, second = course ID */
+    REGISTRATION_DROPPED(4);
+
+    private final int code;
+
+    ChangeType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return Value stored in journal records; never reuse one
+     */
+    public int getCode() { return code; }
+
+    /**
+     * @param code Stored value
+     * @return Matching type, or null for a code written by a newer version
+     */
+    public static ChangeType fromCode(int code) {
+        for (ChangeType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.university.journal;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a ChangeJournal on a daemon thread, delivering each event once and in order
+ * getNextSequence() is the resume point: persist it to continue where a subscriber left off.
+ */
+public class JournalTailer implements AutoCloseable {
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_WAIT_MILLIS = 1000;
+
+    private final ChangeJournal journal;
+    private final ChangeSubscriber subscriber;
+    private final Thread thread;
+    private volatile long nextSequence;
+    private volatile boolean running = true;
+
+    JournalTailer(ChangeJournal journal, long fromSequence, ChangeSubscriber subscriber) {
+        this.journal = journal;
+        this.subscriber = subscriber;
+        this.nextSequence = Math.max(1, fromSequence);
+        this.thread = new Thread(this::run, "change-journal-tailer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @return Sequence of the next event to deliver
+     */
+    public long getNextSequence() { return nextSequence; }
+
+    public boolean isRunning() { return running; }
+
+    /**
+     * Stop delivering; waits briefly for an event in progress to finish
+     */
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(IDLE_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running && !journal.isClosed()) {
+                List<ChangeEvent> events = journal.read(nextSequence, BATCH_SIZE);
+                for (ChangeEvent event : events) {
+                    subscriber.onChange(event);
+                    nextSequence = event.getSequence() + 1;
+                }
+                if (events.isEmpty()) {
+                    journal.awaitAfter(nextSequence - 1, IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedChannelException e) {
+            // The journal was closed, e.g. at shutdown
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Change journal subscriber stopped at sequence " + nextSequence + ": " + e.getMessage());
+        } finally {
+            running = false;
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.university.main;
 
+import com.university.dao.RegistrationDAO;
+import com.university.dao.StudentDAO;
+import com.university.dao.WaitlistDAO;
 import com.university.database.DatabaseConnection;
+import com.university.database.SchemaManager;
 import com.university.service.DisplayService;
+import com.university.service.MaintenanceService;
 import com.university.service.RegistrationService;
+import com.university.service.StudentImportService;
 import com.university.service.StudentService;
+import com.university.service.WarmStartService;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -27,8 +36,13 @@ public class StudentManagementSystem {
     private static StudentService studentService;
     private static RegistrationService registrationService;
     private static DisplayService displayService;
+    private static StudentImportService studentImportService;
+    private static MaintenanceService maintenanceService;
+    private static WarmStartService warmStartService;
     private static Scanner scanner;
 
+    private static final String DEFAULT_REPORT_FILE = "registration-report.txt";
+
     public static void main(String[] args) {
         System.out.println("╔══════════════════════════════════════════════════════════════╗");
         System.out.println("║              STUDENT REGISTRATION & COURSE MANAGEMENT        ║");
@@ -48,7 +62,38 @@ public class StudentManagementSystem {
             return;
         }
 
+        // Create missing tables and indexes before any DAO runs
+        if (!new SchemaManager().migrate()) {
+            System.err.println("⚠️ Database schema could not be brought up to date; some queries may be slow.");
+        }
+        // Warm caches and indexes from the last snapshot if there is a usable one, else from the tables
+        if (!warmStartService.loadSnapshot()) {
+            StudentDAO.rebuildEmailFilter();
+            RegistrationDAO.rebuildEnrollmentIndex();
+            RegistrationDAO.reconcileEnrollmentAggregates();
+        }
+
+        // Non-interactive query plan check, e.g. for CI: --verify-schema (exit code 1 on failure)
+        if (args.length == 1 && args[0].equals("--verify-schema")) {
+            boolean verified = maintenanceService.verifyQueryPlans();
+            cleanup();
+            if (!verified) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        // Non-interactive export, e.g. for a nightly job: --export-report <file>
+        if (args.length == 2 && args[0].equals("--export-report")) {
+            if (displayService.exportFullReportPack(Path.of(args[1]))) {
+                System.out.println("✅ Report written to " + Path.of(args[1]).toAbsolutePath());
+            }
+            cleanup();
+            return;
+        }
+
         // Start main application loop
+        warmStartService.startPeriodicWrites();
         runMainMenu();
 
         // Cleanup
@@ -62,6 +107,9 @@ public class StudentManagementSystem {
         studentService = new StudentService();
         registrationService = new RegistrationService();
         displayService = new DisplayService();
+        studentImportService = new StudentImportService();
+        maintenanceService = new MaintenanceService();
+        warmStartService = new WarmStartService();
         scanner = new Scanner(System.in);
 
         System.out.println("✅ System initialized successfully!");
@@ -76,7 +124,7 @@ public class StudentManagementSystem {
             displayMainMenu();
 
             try {
-                System.out.print("Enter your choice (1-7): ");
+                System.out.print("Enter your choice (1-11): ");
                 int choice = Integer.parseInt(scanner.nextLine().trim());
 
                 switch (choice) {
@@ -99,12 +147,24 @@ public class StudentManagementSystem {
                         displayService.displayCourseEnrollmentReport();
                         break;
                     case 7:
+                        displayService.displayFullReportPack();
+                        break;
+                    case 8:
+                        exportReportPack();
+                        break;
+                    case 9:
+                        importStudents();
+                        break;
+                    case 10:
+                        maintenanceService.runMaintenanceMenu();
+                        break;
+                    case 11:
                         System.out.println("\n👋 Thank you for using the Student Management System!");
                         System.out.println("💾 All data has been saved to the database.");
                         System.out.println("🔒 Closing database connections...");
                         return;
                     default:
-                        System.out.println("❌ Invalid choice! Please select a number between 1-7.");
+                        System.out.println("❌ Invalid choice! Please select a number between 1-11.");
                 }
 
                 // Pause before showing menu again
@@ -112,7 +172,7 @@ public class StudentManagementSystem {
                 scanner.nextLine();
 
             } catch (NumberFormatException e) {
-                System.out.println("❌ Invalid input! Please enter a number between 1-7.");
+                System.out.println("❌ Invalid input! Please enter a number between 1-11.");
                 System.out.println("Press Enter to continue...");
                 scanner.nextLine();
             } catch (Exception e) {
@@ -124,6 +184,40 @@ public class StudentManagementSystem {
         }
     }
 
+    /**
+     * Ask for a file name and write the full report pack to it
+     */
+    private static void exportReportPack() {
+        System.out.print("Enter report file name [" + DEFAULT_REPORT_FILE + "]: ");
+        String fileName = scanner.nextLine().trim();
+        Path path = Path.of(fileName.isEmpty() ? DEFAULT_REPORT_FILE : fileName);
+
+        if (displayService.exportFullReportPack(path)) {
+            System.out.println("✅ Report written to " + path.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Ask for a CSV file and bulk-import the students in it
+     */
+    private static void importStudents() {
+        System.out.print("Enter CSV file (first_name,last_name,email,phone,date_of_birth): ");
+        Path path = Path.of(scanner.nextLine().trim());
+
+        if (!Files.isReadable(path)) {
+            System.out.println("❌ File not found or not readable: " + path);
+            return;
+        }
+
+        System.out.println("📥 Importing students from " + path + "...");
+        StudentImportService.ImportSummary summary = studentImportService.importFromCsv(path);
+        if (summary != null) {
+            System.out.println("\n🎉 Import finished: " + summary.getImported() + " imported, "
+                    + summary.getRejected() + " rejected out of " + summary.getTotalRows() + " rows.");
+            System.out.println("   Rejected rows and summary: " + summary.getRejectFile().toAbsolutePath());
+        }
+    }
+
     /**
      * Display the main menu interface
      */
@@ -137,7 +231,11 @@ public class StudentManagementSystem {
         System.out.println("║  4. 📊 View All Registrations (with SQL JOIN)          ║");
         System.out.println("║  5. 📈 Registration Statistics                          ║");
         System.out.println("║  6. 📋 Course Enrollment Report                         ║");
-        System.out.println("║  7. 🚪 Exit System                                      ║");
+        System.out.println("║  7. 📦 Full Report Pack (single pass)                   ║");
+        System.out.println("║  8. 💾 Export Full Report Pack to File                  ║");
+        System.out.println("║  9. 📥 Import Students from CSV                         ║");
+        System.out.println("║ 10. 🛠️ Database Maintenance                             ║");
+        System.out.println("║ 11. 🚪 Exit System                                      ║");
         System.out.println("╚" + "═".repeat(62) + "╝");
         System.out.println();
     }
@@ -150,6 +248,12 @@ public class StudentManagementSystem {
             if (scanner != null) {
                 scanner.close();
             }
+            if (warmStartService != null) {
+                warmStartService.stop();
+            }
+            // Queued registrations and waitlist promotions need the pool, so finish them before it closes
+            RegistrationDAO.shutdownWriteBehind();
+            WaitlistDAO.shutdownPromotions();
             DatabaseConnection.closeConnection();
             System.out.println("✅ System shutdown completed successfully.");
         } catch (Exception e) {
@@ -10,6 +10,7 @@ public class Course {
     private int credits;
     private String department;
     private String semester;
+    private Integer capacity;
 
     // Default constructor
     public Course() {}
@@ -53,6 +54,12 @@ public class Course {
     public String getSemester() { return semester; }
     public void setSemester(String semester) { this.semester = semester; }
 
+    /**
+     * @return Maximum number of registrations, or null if the course has no limit
+     */
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
     @Override
     public String toString() {
         return String.format("Course{ID=%d, Code='%s', Name='%s', Credits=%d, Department='%s'}",
@@ -0,0 +1,52 @@
+package com.university.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Waitlist model class representing a student waiting for a seat on a full course
+ * Immutable, because entries are kept in ordered concurrent sets.
+ */
+public class WaitlistEntry {
+    /** Served before every standard entry, e.g. students who need the course to graduate */
+    public static final int PRIORITY = 0;
+    /** Default class */
+    public static final int STANDARD = 1;
+
+    private final int waitlistId;
+    private final int studentId;
+    private final int courseId;
+    private final int priorityClass;
+    private final LocalDateTime enqueuedAt;
+
+    // Constructor with all fields
+    public WaitlistEntry(int waitlistId, int studentId, int courseId, int priorityClass, LocalDateTime enqueuedAt) {
+        this.waitlistId = waitlistId;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.priorityClass = priorityClass;
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    // Getters
+    /**
+     * @return Database ID; increases with enqueue time, so it breaks ties within a class
+     */
+    public int getWaitlistId() { return waitlistId; }
+
+    public int getStudentId() { return studentId; }
+
+    public int getCourseId() { return courseId; }
+
+    /**
+     * @return Lower classes are promoted first; PRIORITY or STANDARD
+     */
+    public int getPriorityClass() { return priorityClass; }
+
+    public LocalDateTime getEnqueuedAt() { return enqueuedAt; }
+
+    @Override
+    public String toString() {
+        return String.format("WaitlistEntry{ID=%d, StudentID=%d, CourseID=%d, Class=%d, Enqueued=%s}",
+                waitlistId, studentId, courseId, priorityClass, enqueuedAt);
+    }
+}
@@ -0,0 +1,100 @@
+package com.university.report;
+
+import com.university.model.Course;
+import com.university.model.Registration;
+import com.university.util.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-course enrollment counts, including most and least popular course
+ */
+public class CourseEnrollmentAccumulator implements ReportAccumulator<CourseEnrollmentAccumulator> {
+    private final IntObjectMap<CourseEnrollment> enrollments = new IntObjectMap<>(256);
+
+    @Override
+    public void accept(Registration registration) {
+        enrollmentFor(registration.getCourse()).count++;
+    }
+
+    @Override
+    public void merge(CourseEnrollmentAccumulator other) {
+        other.enrollments.forEach((courseId, enrollment) ->
+                enrollmentFor(enrollment.course).count += enrollment.count);
+    }
+
+    /**
+     * Add students to a course from a source other than the registration join, e.g. an index
+     * @param course Course
+     * @param count Number of students registered for it
+     */
+    public void add(Course course, long count) {
+        enrollmentFor(course).count += count;
+    }
+
+    /**
+     * @return Enrollments sorted by student count, highest first
+     */
+    public List<CourseEnrollment> getEnrollmentsByPopularity() {
+        List<CourseEnrollment> sorted = new ArrayList<>(enrollments.size());
+        enrollments.forEach((courseId, enrollment) -> sorted.add(enrollment));
+        sorted.sort((e1, e2) -> Long.compare(e2.count, e1.count));
+        return sorted;
+    }
+
+    /**
+     * @return Course with the most students, or null if there are no registrations
+     */
+    public CourseEnrollment getMostPopular() {
+        CourseEnrollment[] best = new CourseEnrollment[1];
+        enrollments.forEach((courseId, enrollment) -> {
+            if (best[0] == null || enrollment.count > best[0].count) {
+                best[0] = enrollment;
+            }
+        });
+        return best[0];
+    }
+
+    /**
+     * @return Course with the fewest students, or null if there are no registrations
+     */
+    public CourseEnrollment getLeastPopular() {
+        CourseEnrollment[] worst = new CourseEnrollment[1];
+        enrollments.forEach((courseId, enrollment) -> {
+            if (worst[0] == null || enrollment.count < worst[0].count) {
+                worst[0] = enrollment;
+            }
+        });
+        return worst[0];
+    }
+
+    public int getCourseCount() {
+        return enrollments.size();
+    }
+
+    private CourseEnrollment enrollmentFor(Course course) {
+        CourseEnrollment enrollment = enrollments.get(course.getCourseId());
+        if (enrollment == null) {
+            enrollment = new CourseEnrollment(course);
+            enrollments.put(course.getCourseId(), enrollment);
+        }
+        return enrollment;
+    }
+
+    /**
+     * A course and the number of students registered for it
+     */
+    public static class CourseEnrollment {
+        private final Course course;
+        private long count;
+
+        CourseEnrollment(Course course) {
+            this.course = course;
+        }
+
+        public Course getCourse() { return course; }
+
+        public long getCount() { return count; }
+    }
+}
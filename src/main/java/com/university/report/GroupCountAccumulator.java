@@ -0,0 +1,55 @@
+package com.university.report;
+
+import com.university.model.Registration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Counts registrations per key, e.g. per department or per semester
+ * @param <K> Group key type
+ */
+public class GroupCountAccumulator<K> implements ReportAccumulator<GroupCountAccumulator<K>> {
+    private final Function<Registration, K> keyFunction;
+    private final Map<K, Long> counts = new HashMap<>();
+
+    public GroupCountAccumulator(Function<Registration, K> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * @return Accumulator counting registrations per course department
+     */
+    public static GroupCountAccumulator<String> byDepartment() {
+        return new GroupCountAccumulator<>(registration -> registration.getCourse().getDepartment());
+    }
+
+    /**
+     * @return Accumulator counting registrations per course semester
+     */
+    public static GroupCountAccumulator<String> bySemester() {
+        return new GroupCountAccumulator<>(registration -> registration.getCourse().getSemester());
+    }
+
+    /**
+     * @return Accumulator counting registrations per course credit hours
+     */
+    public static GroupCountAccumulator<Integer> byCredits() {
+        return new GroupCountAccumulator<>(registration -> registration.getCourse().getCredits());
+    }
+
+    @Override
+    public void accept(Registration registration) {
+        counts.merge(keyFunction.apply(registration), 1L, Long::sum);
+    }
+
+    @Override
+    public void merge(GroupCountAccumulator<K> other) {
+        other.counts.forEach((key, count) -> counts.merge(key, count, Long::sum));
+    }
+
+    public Map<K, Long> getCounts() {
+        return counts;
+    }
+}
@@ -0,0 +1,24 @@
+package com.university.report;
+
+import com.university.model.Registration;
+
+/**
+ * A report that is built up one registration row at a time
+ * The ReportEngine gives every worker thread its own instance and merges them
+ * at the end, so implementations need no synchronisation.
+ * @param <A> The implementing type, so merge() can accept its own kind
+ */
+public interface ReportAccumulator<A extends ReportAccumulator<A>> {
+
+    /**
+     * Fold one registration into the report
+     * @param registration Registration with populated Student and Course
+     */
+    void accept(Registration registration);
+
+    /**
+     * Fold the partial result of another worker into this one
+     * @param other Accumulator that saw a disjoint set of rows
+     */
+    void merge(A other);
+}
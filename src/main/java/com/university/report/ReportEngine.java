@@ -0,0 +1,227 @@
+package com.university.report;
+
+import com.university.dao.RegistrationDAO;
+import com.university.model.Registration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the registration details join once and feeds every row to several reports
+ * Ordered sinks see the rows on the reading thread in query order. Accumulators
+ * receive rows in batches on worker threads, each worker owning its own
+ * accumulator instances, and the partial results are merged in parallel at the end.
+ */
+public class ReportEngine {
+    private static final int BATCH_SIZE = 2048;
+    private static final List<Registration> END_OF_ROWS = new ArrayList<>();
+
+    private final RegistrationDAO registrationDAO;
+    private final int parallelism;
+    private final List<Consumer<Registration>> sinks = new ArrayList<>();
+    private final List<Slot<?>> slots = new ArrayList<>();
+
+    public ReportEngine() {
+        this(new RegistrationDAO(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param registrationDAO DAO used to stream the registration join
+     * @param parallelism Number of worker threads for accumulators
+     */
+    public ReportEngine(RegistrationDAO registrationDAO, int parallelism) {
+        this.registrationDAO = registrationDAO;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Register a sink that sees every row in query order on the reading thread
+     * @param sink Row consumer, e.g. a report printer
+     * @return This engine
+     */
+    public ReportEngine addSink(Consumer<Registration> sink) {
+        sinks.add(sink);
+        return this;
+    }
+
+    /**
+     * Register an accumulator type
+     * @param factory Creates one empty accumulator per worker thread
+     * @param <A> Accumulator type
+     * @return Handle that yields the merged accumulator after run()
+     */
+    public <A extends ReportAccumulator<A>> Supplier<A> register(Supplier<A> factory) {
+        Slot<A> slot = new Slot<>(factory);
+        slots.add(slot);
+        return slot::getResult;
+    }
+
+    /**
+     * Scan the registration join once, feeding all sinks and accumulators
+     * @param fetchSize Rows fetched from the server per round trip
+     * @return Number of rows scanned
+     */
+    public long run(int fetchSize) {
+        if (slots.isEmpty()) {
+            long[] rows = new long[1];
+            registrationDAO.forEachRegistrationWithDetails(fetchSize, registration -> {
+                sinks.forEach(sink -> sink.accept(registration));
+                rows[0]++;
+            });
+            return rows[0];
+        }
+
+        BlockingQueue<List<Registration>> queue = new ArrayBlockingQueue<>(parallelism * 2);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "report-engine-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<List<ReportAccumulator<?>>>> partials = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                partials.add(workers.submit(() -> accumulate(queue)));
+            }
+
+            RowBatcher batcher = new RowBatcher(queue);
+            try {
+                registrationDAO.forEachRegistrationWithDetails(fetchSize, batcher);
+                batcher.flush();
+            } finally {
+                for (int i = 0; i < parallelism; i++) {
+                    put(queue, END_OF_ROWS);
+                }
+            }
+
+            List<List<ReportAccumulator<?>>> perWorker = new ArrayList<>();
+            for (Future<List<ReportAccumulator<?>>> partial : partials) {
+                perWorker.add(partial.get());
+            }
+
+            // Each accumulator type merges independently, so merge them in parallel
+            IntStream.range(0, slots.size()).parallel()
+                    .forEach(index -> slots.get(index).mergeFrom(perWorker, index));
+
+            return batcher.rows;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Report run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Report accumulator failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Worker loop: fold batches into this worker's own accumulators until the end marker
+     */
+    private List<ReportAccumulator<?>> accumulate(BlockingQueue<List<Registration>> queue)
+            throws InterruptedException {
+        List<ReportAccumulator<?>> accumulators = new ArrayList<>(slots.size());
+        for (Slot<?> slot : slots) {
+            accumulators.add(slot.factory.get());
+        }
+
+        RuntimeException failure = null;
+        List<Registration> batch;
+        while ((batch = queue.take()) != END_OF_ROWS) {
+            if (failure != null) {
+                continue; // Keep draining so the reading thread never blocks on a full queue
+            }
+            try {
+                for (Registration registration : batch) {
+                    for (ReportAccumulator<?> accumulator : accumulators) {
+                        accumulator.accept(registration);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return accumulators;
+    }
+
+    private static void put(BlockingQueue<List<Registration>> queue, List<Registration> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Report run was interrupted", e);
+        }
+    }
+
+    /**
+     * Reading-thread consumer: feeds the ordered sinks and hands rows to workers in batches
+     */
+    private class RowBatcher implements Consumer<Registration> {
+        private final BlockingQueue<List<Registration>> queue;
+        private List<Registration> batch = new ArrayList<>(BATCH_SIZE);
+        private long rows;
+
+        RowBatcher(BlockingQueue<List<Registration>> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void accept(Registration registration) {
+            for (Consumer<Registration> sink : sinks) {
+                sink.accept(registration);
+            }
+            batch.add(registration);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+            rows++;
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                put(queue, batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+
+    /**
+     * A registered accumulator type and its merged result
+     */
+    private static class Slot<A extends ReportAccumulator<A>> {
+        private final Supplier<A> factory;
+        private volatile A result;
+
+        Slot(Supplier<A> factory) {
+            this.factory = factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        void mergeFrom(List<List<ReportAccumulator<?>>> perWorker, int index) {
+            A merged = (A) perWorker.get(0).get(index);
+            for (int worker = 1; worker < perWorker.size(); worker++) {
+                merged.merge((A) perWorker.get(worker).get(index));
+            }
+            result = merged;
+        }
+
+        A getResult() {
+            if (result == null) {
+                throw new IllegalStateException("ReportEngine.run() has not completed");
+            }
+            return result;
+        }
+    }
+}
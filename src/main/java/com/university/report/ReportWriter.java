@@ -0,0 +1,165 @@
+package com.university.report;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Formatter;
+
+/**
+ * Buffered text renderer for reports
+ * Text is formatted straight into one reusable character buffer and written to the
+ * console or a file in large chunks, instead of taking the System.out lock and
+ * issuing a write for every line.
+ */
+public class ReportWriter implements Closeable, Flushable {
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final WritableByteChannel channel;
+    private final boolean ownsChannel;
+    private final StringBuilder text = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private final Formatter formatter = new Formatter(text);
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(FLUSH_THRESHOLD);
+
+    private ReportWriter(WritableByteChannel channel, boolean ownsChannel, Charset charset) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * @return Writer for standard output; closing it flushes but leaves stdout open
+     */
+    public static ReportWriter toConsole() {
+        // Anything already printed through System.out must come first
+        System.out.flush();
+        String encoding = System.getProperty("stdout.encoding");
+        Charset charset = encoding != null && Charset.isSupported(encoding)
+                ? Charset.forName(encoding)
+                : Charset.defaultCharset();
+        return new ReportWriter(Channels.newChannel(new FileOutputStream(FileDescriptor.out)), false, charset);
+    }
+
+    /**
+     * @param path File to create or replace
+     * @return UTF-8 writer for the file; close it to finish the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static ReportWriter toFile(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ReportWriter(channel, true, StandardCharsets.UTF_8);
+    }
+
+    public ReportWriter print(String value) {
+        text.append(value);
+        return flushIfFull();
+    }
+
+    public ReportWriter println(String value) {
+        text.append(value).append(NEWLINE);
+        return flushIfFull();
+    }
+
+    public ReportWriter println() {
+        text.append(NEWLINE);
+        return flushIfFull();
+    }
+
+    /**
+     * Format into the buffer without creating an intermediate String
+     */
+    public ReportWriter printf(String format, Object... args) {
+        formatter.format(format, args);
+        return flushIfFull();
+    }
+
+    /**
+     * Append a character count times, e.g. a table rule, without allocating
+     */
+    public ReportWriter repeat(char c, int count) {
+        for (int i = 0; i < count; i++) {
+            text.append(c);
+        }
+        return flushIfFull();
+    }
+
+    /**
+     * Append a full-width rule followed by a line break
+     */
+    public ReportWriter rule(char c, int width) {
+        repeat(c, width);
+        return println();
+    }
+
+    /**
+     * Encode and write everything buffered so far
+     */
+    @Override
+    public void flush() {
+        if (text.length() == 0) {
+            return;
+        }
+        try {
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                drain();
+            } while (result.isOverflow());
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+            text.setLength(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing report", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        if (ownsChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error closing report file", e);
+            }
+        }
+    }
+
+    private ReportWriter flushIfFull() {
+        if (text.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+        return this;
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.university.report;
+
+import com.university.model.Registration;
+import com.university.util.IntObjectMap;
+
+/**
+ * Per-student course and credit totals
+ */
+public class StudentSummaryAccumulator implements ReportAccumulator<StudentSummaryAccumulator> {
+    private final IntObjectMap<int[]> totalsByStudent = new IntObjectMap<>(1024);
+    private long totalRegistrations;
+
+    @Override
+    public void accept(Registration registration) {
+        int[] totals = totalsFor(registration.getStudentId());
+        totals[0]++;
+        totals[1] += registration.getCourse().getCredits();
+        totalRegistrations++;
+    }
+
+    @Override
+    public void merge(StudentSummaryAccumulator other) {
+        other.totalsByStudent.forEach((studentId, otherTotals) -> {
+            int[] totals = totalsFor(studentId);
+            totals[0] += otherTotals[0];
+            totals[1] += otherTotals[1];
+        });
+        totalRegistrations += other.totalRegistrations;
+    }
+
+    /**
+     * @return Number of students with at least one registration
+     */
+    public int getStudentCount() {
+        return totalsByStudent.size();
+    }
+
+    public long getTotalRegistrations() {
+        return totalRegistrations;
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return Number of courses the student is registered for
+     */
+    public int getCourseCount(int studentId) {
+        int[] totals = totalsByStudent.get(studentId);
+        return totals == null ? 0 : totals[0];
+    }
+
+    /**
+     * @param studentId Student ID
+     * @return Total credit hours the student is registered for
+     */
+    public int getCredits(int studentId) {
+        int[] totals = totalsByStudent.get(studentId);
+        return totals == null ? 0 : totals[1];
+    }
+
+    private int[] totalsFor(int studentId) {
+        int[] totals = totalsByStudent.get(studentId);
+        if (totals == null) {
+            totals = new int[2];
+            totalsByStudent.put(studentId, totals);
+        }
+        return totals;
+    }
+}
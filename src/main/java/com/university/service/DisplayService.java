@@ -1,14 +1,30 @@
 package com.university.service;
 
+import com.university.analytics.RegistrationAnalytics;
+import com.university.analytics.RegistrationColumns;
+import com.university.cache.EnrollmentAggregates;
+import com.university.cache.EnrollmentIndex;
+import com.university.dao.CourseDAO;
 import com.university.dao.RegistrationDAO;
+import com.university.dao.RegistrationStatistics;
+import com.university.dao.StatisticsDAO;
 import com.university.model.Course;
 import com.university.model.Registration;
 import com.university.model.Student;
-
+import com.university.report.CourseEnrollmentAccumulator;
+import com.university.report.CourseEnrollmentAccumulator.CourseEnrollment;
+import com.university.report.GroupCountAccumulator;
+import com.university.report.ReportEngine;
+import com.university.report.ReportWriter;
+import com.university.report.StudentSummaryAccumulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Service class for displaying data and reports
@@ -16,215 +32,326 @@ import java.util.stream.Collectors;
  */
 public class DisplayService {
     private RegistrationDAO registrationDAO;
+    private StatisticsDAO statisticsDAO;
+    private CourseDAO courseDAO;
 
     public DisplayService() {
         this.registrationDAO = new RegistrationDAO();
+        this.statisticsDAO = new StatisticsDAO();
+        this.courseDAO = new CourseDAO();
     }
 
     /**
      * Display all student registrations with course details using SQL JOIN
      * This method demonstrates the use of SQL joins as required by the CAT
+     * Rows are streamed in student order, so memory use does not grow with the registration count
      */
     public void displayAllRegistrations() {
-        System.out.println("\n" + "=".repeat(100));
-        System.out.println("                           STUDENT COURSE REGISTRATIONS REPORT");
-        System.out.println("                               (Using SQL JOIN Query)");
-        System.out.println("=".repeat(100));
-
-        List<Registration> registrations = registrationDAO.getAllRegistrationsWithDetails();
+        try (ReportWriter out = ReportWriter.toConsole()) {
+            RegistrationPrinter printer = new RegistrationPrinter(out);
+            new ReportEngine(registrationDAO, 1)
+                    .addSink(printer)
+                    .run(RegistrationDAO.DEFAULT_FETCH_SIZE);
+            printer.finish();
+
+            if (printer.totalStudents > 0) {
+                printOverallSummary(out, printer.totalStudents, printer.totalRegistrations);
+            }
+        }
+    }
 
-        if (registrations.isEmpty()) {
-            System.out.println("📭 No student registrations found in the database.");
+    /**
+     * Display detailed registration statistics
+     * Counts come from the columnar analytics snapshot, refreshed with any new registrations;
+     * if it cannot be loaded they are aggregated by the database instead
+     */
+    public void displayRegistrationStatistics() {
+        RegistrationColumns columns = RegistrationAnalytics.shared().refresh();
+        if (columns != null) {
+            try (ReportWriter out = ReportWriter.toConsole()) {
+                printStatistics(out, columns.isEmpty(),
+                        columns.departmentCounts(),
+                        columns.semesterCounts(),
+                        columns.creditCounts());
+            }
             return;
         }
 
-        // Group registrations by student for better display
-        Map<Integer, List<Registration>> registrationsByStudent = registrations.stream()
-                .collect(Collectors.groupingBy(Registration::getStudentId));
-
-        int totalRegistrations = 0;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        for (Map.Entry<Integer, List<Registration>> entry : registrationsByStudent.entrySet()) {
-            List<Registration> studentRegistrations = entry.getValue();
-            Student student = studentRegistrations.get(0).getStudent(); // Get student info from first registration
-
-            System.out.println("\n" + "─".repeat(100));
-            System.out.printf("📚 STUDENT: %s (ID: %d)%n", student.getFullName(), student.getStudentId());
-            System.out.printf("   Email: %s | Phone: %s | DOB: %s%n",
-                    student.getEmail(), student.getPhone(), student.getDateOfBirth());
-            System.out.println("─".repeat(100));
+        RegistrationStatistics statistics = statisticsDAO.getRegistrationStatistics();
+        try (ReportWriter out = ReportWriter.toConsole()) {
+            printStatistics(out, statistics.isEmpty(),
+                    statistics.getDepartmentCounts(),
+                    statistics.getSemesterCounts(),
+                    statistics.getCreditCounts());
+        }
+    }
 
-            System.out.printf("%-8s %-30s %-8s %-15s %-15s %-18s %-6s%n",
-                    "Code", "Course Name", "Credits", "Department", "Semester", "Enrolled Date", "Grade");
-            System.out.println("-".repeat(100));
-
-            for (Registration registration : studentRegistrations) {
-                Course course = registration.getCourse();
-                String enrollmentDate = registration.getEnrollmentDate() != null
-                        ? registration.getEnrollmentDate().format(formatter)
-                        : "N/A";
-                String grade = registration.getGrade() != null ? registration.getGrade() : "N/A";
-
-                System.out.printf("%-8s %-30s %-8d %-15s %-15s %-18s %-6s%n",
-                        course.getCourseCode(),
-                        course.getCourseName(),
-                        course.getCredits(),
-                        course.getDepartment(),
-                        course.getSemester(),
-                        enrollmentDate,
-                        grade);
-
-                totalRegistrations++;
+    /**
+     * Display course enrollment report
+     * Counts come from the incrementally maintained enrollment aggregates when they are
+     * loaded, otherwise from the enrollment index, otherwise from a scan
+     */
+    public void displayCourseEnrollmentReport() {
+        CourseEnrollmentAccumulator enrollments;
+        EnrollmentAggregates aggregates = RegistrationDAO.getEnrollmentAggregates();
+        EnrollmentIndex index;
+        if (aggregates != null) {
+            enrollments = new CourseEnrollmentAccumulator();
+            aggregates.forEachCourse(enrollments::add);
+        } else if ((index = RegistrationDAO.getEnrollmentIndex()) != null) {
+            enrollments = new CourseEnrollmentAccumulator();
+            for (Course course : courseDAO.getAllCourses()) {
+                int students = index.getStudentCount(course.getCourseId());
+                if (students > 0) {
+                    enrollments.add(course, students);
+                }
             }
+        } else {
+            ReportEngine engine = new ReportEngine();
+            Supplier<CourseEnrollmentAccumulator> result = engine.register(CourseEnrollmentAccumulator::new);
+            engine.run(RegistrationDAO.DEFAULT_FETCH_SIZE);
+            enrollments = result.get();
+        }
 
-            // Calculate total credits for this student
-            int totalCredits = studentRegistrations.stream()
-                    .mapToInt(reg -> reg.getCourse().getCredits())
-                    .sum();
+        try (ReportWriter out = ReportWriter.toConsole()) {
+            printCourseEnrollment(out, enrollments);
+        }
+    }
 
-            System.out.println("-".repeat(100));
-            System.out.printf("   📊 STUDENT SUMMARY: %d courses registered | %d total credits%n",
-                    studentRegistrations.size(), totalCredits);
+    /**
+     * Display the registrations listing, statistics and course enrollment reports
+     * from a single scan of the registration join
+     */
+    public void displayFullReportPack() {
+        try (ReportWriter out = ReportWriter.toConsole()) {
+            writeFullReportPack(out);
         }
+    }
 
-        System.out.println("\n" + "=".repeat(100));
-        System.out.println("📈 OVERALL SUMMARY:");
-        System.out.println("   Total Students with Registrations: " + registrationsByStudent.size());
-        System.out.println("   Total Course Registrations: " + totalRegistrations);
-        System.out.println("   Average Courses per Student: " +
-                String.format("%.2f", (double) totalRegistrations / registrationsByStudent.size()));
-        System.out.println("=".repeat(100));
+    /**
+     * Write the full report pack to a file, e.g. for the nightly registration report
+     * @param path File to create or replace
+     * @return true if the report was written, false otherwise
+     */
+    public boolean exportFullReportPack(Path path) {
+        try (ReportWriter out = ReportWriter.toFile(path)) {
+            writeFullReportPack(out);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ Error writing report to " + path + ": " + e.getMessage());
+            return false;
+        } catch (IllegalStateException e) {
+            System.err.println("❌ Error building report for " + path + ": " + e.getMessage());
+            return false;
+        }
     }
 
     /**
-     * Display detailed registration statistics
+     * Render all three reports from one scan of the registration join.
+     * The listing is written as rows arrive while the per-student, per-course,
+     * per-department and per-semester accumulators run on worker threads.
+     * @param out Report destination
      */
-    public void displayRegistrationStatistics() {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("                 REGISTRATION STATISTICS");
-        System.out.println("=".repeat(70));
+    private void writeFullReportPack(ReportWriter out) {
+        RegistrationPrinter printer = new RegistrationPrinter(out);
+        ReportEngine engine = new ReportEngine().addSink(printer);
+        Supplier<StudentSummaryAccumulator> students = engine.register(StudentSummaryAccumulator::new);
+        Supplier<CourseEnrollmentAccumulator> courses = engine.register(CourseEnrollmentAccumulator::new);
+        Supplier<GroupCountAccumulator<String>> departments = engine.register(GroupCountAccumulator::byDepartment);
+        Supplier<GroupCountAccumulator<String>> semesters = engine.register(GroupCountAccumulator::bySemester);
+        Supplier<GroupCountAccumulator<Integer>> credits = engine.register(GroupCountAccumulator::byCredits);
+
+        long rows = engine.run(RegistrationDAO.DEFAULT_FETCH_SIZE);
+        printer.finish();
+
+        if (rows > 0) {
+            printOverallSummary(out, students.get().getStudentCount(), students.get().getTotalRegistrations());
+        }
+        printStatistics(out, rows == 0,
+                departments.get().getCounts(),
+                semesters.get().getCounts(),
+                credits.get().getCounts());
+        printCourseEnrollment(out, courses.get());
+    }
+
+    private void printOverallSummary(ReportWriter out, int totalStudents, long totalRegistrations) {
+        out.println().rule('=', 100);
+        out.println("📈 OVERALL SUMMARY:");
+        out.println("   Total Students with Registrations: " + totalStudents);
+        out.println("   Total Course Registrations: " + totalRegistrations);
+        out.printf("   Average Courses per Student: %.2f%n", (double) totalRegistrations / totalStudents);
+        out.rule('=', 100);
+    }
 
-        List<Registration> registrations = registrationDAO.getAllRegistrationsWithDetails();
+    private void printStatistics(ReportWriter out, boolean empty, Map<String, Long> departmentCounts,
+                                 Map<String, Long> semesterCounts, Map<Integer, Long> creditCounts) {
+        out.println().rule('=', 70);
+        out.println("                 REGISTRATION STATISTICS");
+        out.rule('=', 70);
 
-        if (registrations.isEmpty()) {
-            System.out.println("📭 No registration data available for statistics.");
+        if (empty) {
+            out.println("📭 No registration data available for statistics.");
             return;
         }
 
         // Department statistics
-        Map<String, Long> departmentCounts = registrations.stream()
-                .collect(Collectors.groupingBy(
-                        reg -> reg.getCourse().getDepartment(),
-                        Collectors.counting()
-                ));
-
-        System.out.println("\n📊 REGISTRATIONS BY DEPARTMENT:");
-        System.out.println("-".repeat(40));
+        out.println("\n📊 REGISTRATIONS BY DEPARTMENT:");
+        out.rule('-', 40);
         departmentCounts.entrySet().stream()
                 .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
                 .forEach(entry ->
-                        System.out.printf("%-25s: %d registrations%n", entry.getKey(), entry.getValue())
+                        out.printf("%-25s: %d registrations%n", entry.getKey(), entry.getValue())
                 );
 
         // Semester statistics
-        Map<String, Long> semesterCounts = registrations.stream()
-                .collect(Collectors.groupingBy(
-                        reg -> reg.getCourse().getSemester(),
-                        Collectors.counting()
-                ));
-
-        System.out.println("\n📅 REGISTRATIONS BY SEMESTER:");
-        System.out.println("-".repeat(40));
+        out.println("\n📅 REGISTRATIONS BY SEMESTER:");
+        out.rule('-', 40);
         semesterCounts.entrySet().stream()
                 .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
                 .forEach(entry ->
-                        System.out.printf("%-25s: %d registrations%n", entry.getKey(), entry.getValue())
+                        out.printf("%-25s: %d registrations%n", entry.getKey(), entry.getValue())
                 );
 
         // Credit distribution
-        Map<Integer, Long> creditCounts = registrations.stream()
-                .collect(Collectors.groupingBy(
-                        reg -> reg.getCourse().getCredits(),
-                        Collectors.counting()
-                ));
-
-        System.out.println("\n💳 REGISTRATIONS BY CREDIT HOURS:");
-        System.out.println("-".repeat(40));
+        out.println("\n💳 REGISTRATIONS BY CREDIT HOURS:");
+        out.rule('-', 40);
         creditCounts.entrySet().stream()
                 .sorted(Map.Entry.comparingByKey())
                 .forEach(entry ->
-                        System.out.printf("%d credit courses       : %d registrations%n",
+                        out.printf("%d credit courses       : %d registrations%n",
                                 entry.getKey(), entry.getValue())
                 );
 
-        System.out.println("=".repeat(70));
+        out.rule('=', 70);
     }
 
-    /**
-     * Display course enrollment report
-     */
-    public void displayCourseEnrollmentReport() {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("                      COURSE ENROLLMENT REPORT");
-        System.out.println("=".repeat(80));
-
-        List<Registration> registrations = registrationDAO.getAllRegistrationsWithDetails();
+    private void printCourseEnrollment(ReportWriter out, CourseEnrollmentAccumulator enrollments) {
+        out.println().rule('=', 80);
+        out.println("                      COURSE ENROLLMENT REPORT");
+        out.rule('=', 80);
 
-        if (registrations.isEmpty()) {
-            System.out.println("📭 No enrollment data available.");
+        if (enrollments.getCourseCount() == 0) {
+            out.println("📭 No enrollment data available.");
             return;
         }
 
-        // Group by course
-        Map<Integer, List<Registration>> enrollmentsByCourse = registrations.stream()
-                .collect(Collectors.groupingBy(Registration::getCourseId));
-
-        System.out.printf("%-10s %-30s %-12s %-15s %-10s%n",
+        out.printf("%-10s %-30s %-12s %-15s %-10s%n",
                 "Code", "Course Name", "Enrolled", "Department", "Credits");
-        System.out.println("-".repeat(80));
-
-        enrollmentsByCourse.entrySet().stream()
-                .sorted((e1, e2) -> e2.getValue().size() - e1.getValue().size()) // Sort by enrollment count
-                .forEach(entry -> {
-                    List<Registration> courseRegistrations = entry.getValue();
-                    Course course = courseRegistrations.get(0).getCourse();
-                    int enrollmentCount = courseRegistrations.size();
-
-                    System.out.printf("%-10s %-30s %-12d %-15s %-10d%n",
-                            course.getCourseCode(),
-                            course.getCourseName(),
-                            enrollmentCount,
-                            course.getDepartment(),
-                            course.getCredits());
-                });
-
-        System.out.println("-".repeat(80));
-        System.out.println("Total Courses with Enrollments: " + enrollmentsByCourse.size());
+        out.rule('-', 80);
+
+        // Sorted by enrollment count
+        for (CourseEnrollment enrollment : enrollments.getEnrollmentsByPopularity()) {
+            Course course = enrollment.getCourse();
+            out.printf("%-10s %-30s %-12d %-15s %-10d%n",
+                    course.getCourseCode(),
+                    course.getCourseName(),
+                    enrollment.getCount(),
+                    course.getDepartment(),
+                    course.getCredits());
+        }
+
+        out.rule('-', 80);
+        out.println("Total Courses with Enrollments: " + enrollments.getCourseCount());
 
         // Find most and least popular courses
-        if (!enrollmentsByCourse.isEmpty()) {
-            Map.Entry<Integer, List<Registration>> mostPopular = enrollmentsByCourse.entrySet().stream()
-                    .max((e1, e2) -> e1.getValue().size() - e2.getValue().size())
-                    .orElse(null);
-
-            Map.Entry<Integer, List<Registration>> leastPopular = enrollmentsByCourse.entrySet().stream()
-                    .min((e1, e2) -> e1.getValue().size() - e2.getValue().size())
-                    .orElse(null);
-
-            if (mostPopular != null) {
-                Course course = mostPopular.getValue().get(0).getCourse();
-                System.out.println("\n🏆 Most Popular Course: " + course.getCourseCode() +
-                        " (" + mostPopular.getValue().size() + " students)");
+        CourseEnrollment mostPopular = enrollments.getMostPopular();
+        CourseEnrollment leastPopular = enrollments.getLeastPopular();
+
+        if (mostPopular != null) {
+            out.println("\n🏆 Most Popular Course: " + mostPopular.getCourse().getCourseCode() +
+                    " (" + mostPopular.getCount() + " students)");
+        }
+
+        if (leastPopular != null && leastPopular != mostPopular) {
+            out.println("📉 Least Popular Course: " + leastPopular.getCourse().getCourseCode() +
+                    " (" + leastPopular.getCount() + " students)");
+        }
+
+        out.rule('=', 80);
+    }
+
+    /**
+     * Prints the registrations listing as rows arrive, one block per student
+     */
+    private static class RegistrationPrinter implements Consumer<Registration> {
+        private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        private final ReportWriter out;
+
+        int studentId = -1;
+        int courses;
+        int credits;
+        int totalStudents;
+        long totalRegistrations;
+
+        RegistrationPrinter(ReportWriter out) {
+            this.out = out;
+            out.println().rule('=', 100);
+            out.println("                           STUDENT COURSE REGISTRATIONS REPORT");
+            out.println("                               (Using SQL JOIN Query)");
+            out.rule('=', 100);
+        }
+
+        @Override
+        public void accept(Registration registration) {
+            if (registration.getStudentId() != studentId) {
+                finishStudent();
+                startStudent(registration.getStudent());
             }
 
-            if (leastPopular != null && !leastPopular.equals(mostPopular)) {
-                Course course = leastPopular.getValue().get(0).getCourse();
-                System.out.println("📉 Least Popular Course: " + course.getCourseCode() +
-                        " (" + leastPopular.getValue().size() + " students)");
+            Course course = registration.getCourse();
+            String enrollmentDate = registration.getEnrollmentDate() != null
+                    ? registration.getEnrollmentDate().format(formatter)
+                    : "N/A";
+            String grade = registration.getGrade() != null ? registration.getGrade() : "N/A";
+
+            out.printf("%-8s %-30s %-8d %-15s %-15s %-18s %-6s%n",
+                    course.getCourseCode(),
+                    course.getCourseName(),
+                    course.getCredits(),
+                    course.getDepartment(),
+                    course.getSemester(),
+                    enrollmentDate,
+                    grade);
+
+            courses++;
+            credits += course.getCredits();
+            totalRegistrations++;
+        }
+
+        /**
+         * Close the last student block, or report that there was nothing to print
+         */
+        void finish() {
+            finishStudent();
+            if (totalStudents == 0) {
+                out.println("📭 No student registrations found in the database.");
             }
         }
 
-        System.out.println("=".repeat(80));
+        private void startStudent(Student student) {
+            studentId = student.getStudentId();
+            courses = 0;
+            credits = 0;
+            totalStudents++;
+
+            out.println().rule('─', 100);
+            out.printf("📚 STUDENT: %s (ID: %d)%n", student.getFullName(), student.getStudentId());
+            out.printf("   Email: %s | Phone: %s | DOB: %s%n",
+                    student.getEmail(), student.getPhone(), student.getDateOfBirth());
+            out.rule('─', 100);
+
+            out.printf("%-8s %-30s %-8s %-15s %-15s %-18s %-6s%n",
+                    "Code", "Course Name", "Credits", "Department", "Semester", "Enrolled Date", "Grade");
+            out.rule('-', 100);
+        }
+
+        private void finishStudent() {
+            if (studentId == -1) {
+                return;
+            }
+            out.rule('-', 100);
+            out.printf("   📊 STUDENT SUMMARY: %d courses registered | %d total credits%n",
+                    courses, credits);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,304 @@
+package com.university.service;
+
+import com.university.analytics.RegistrationAnalytics;
+import com.university.analytics.RegistrationColumns;
+import com.university.cache.CourseCatalogCache;
+import com.university.cache.EmailBloomFilter;
+import com.university.cache.EnrollmentAggregates;
+import com.university.cache.EnrollmentIndex;
+import com.university.cache.SeatLedger;
+import com.university.cache.TinyLfuCache;
+import com.university.cache.Waitlists;
+import com.university.dao.CourseDAO;
+import com.university.dao.QueryCatalog;
+import com.university.dao.RegistrationDAO;
+import com.university.dao.RegistrationWriteBehind;
+import com.university.dao.StudentDAO;
+import com.university.dao.WaitlistDAO;
+import com.university.dao.WaitlistPromoter;
+import com.university.database.ConnectionPool;
+import com.university.database.DatabaseConnection;
+import com.university.database.QueryPlanVerifier;
+import com.university.database.SchemaManager;
+import com.university.journal.ChangeEvent;
+import com.university.journal.ChangeJournal;
+import com.university.model.Student;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+/**
+ * Service class for database maintenance
+ * Schema migrations, query plan verification and connection pool statistics
+ */
+public class MaintenanceService {
+    private static final int RECENT_CHANGES = 20;
+
+    private SchemaManager schemaManager;
+    private Scanner scanner;
+
+    public MaintenanceService() {
+        this.schemaManager = new SchemaManager();
+        this.scanner = new Scanner(System.in);
+    }
+
+    /**
+     * Interactive maintenance menu
+     */
+    public void runMaintenanceMenu() {
+        while (true) {
+            System.out.println("\n" + "=".repeat(50));
+            System.out.println("              DATABASE MAINTENANCE");
+            System.out.println("=".repeat(50));
+            System.out.println("1. 📐 Show schema version");
+            System.out.println("2. 🛠️ Apply pending migrations");
+            System.out.println("3. 🔍 Verify query plans (EXPLAIN)");
+            System.out.println("4. 🔌 Connection pool and cache statistics");
+            System.out.println("5. 📧 Rebuild email filter");
+            System.out.println("6. 🕸️ Rebuild enrollment index");
+            System.out.println("7. 📊 Rebuild analytics snapshot");
+            System.out.println("8. 🧮 Reconcile enrollment aggregates");
+            System.out.println("9. 💾 Write warm-start snapshot");
+            System.out.println("10. 📜 Show recent changes");
+            System.out.println("11. 🎟️ Recount course seats");
+            System.out.println("12. ⏳ Promote waitlisted students into free seats");
+            System.out.println("0. ↩️ Back to main menu");
+            System.out.print("Enter your choice: ");
+
+            String input = scanner.nextLine().trim();
+            switch (input) {
+                case "1":
+                    schemaManager.printStatus();
+                    break;
+                case "2":
+                    schemaManager.migrate();
+                    break;
+                case "3":
+                    verifyQueryPlans();
+                    break;
+                case "4":
+                    displayPoolStatistics();
+                    break;
+                case "5":
+                    StudentDAO.rebuildEmailFilter();
+                    break;
+                case "6":
+                    RegistrationDAO.rebuildEnrollmentIndex();
+                    break;
+                case "7":
+                    rebuildAnalyticsSnapshot();
+                    break;
+                case "8":
+                    RegistrationDAO.reconcileEnrollmentAggregates();
+                    break;
+                case "9":
+                    new WarmStartService().writeSnapshot(true);
+                    break;
+                case "10":
+                    displayRecentChanges(RECENT_CHANGES);
+                    break;
+                case "11":
+                    RegistrationDAO.recountSeats();
+                    break;
+                case "12":
+                    System.out.println("✅ " + WaitlistDAO.promoteAllWaitlisted()
+                            + " free seats offered to waitlisted students.");
+                    break;
+                case "0":
+                    return;
+                default:
+                    System.out.println("❌ Invalid choice! Please select a number between 0-12.");
+            }
+        }
+    }
+
+    /**
+     * Bring the schema up to date and EXPLAIN every DAO statement
+     * @return true if the schema is current and no statement does an unexpected full table scan
+     */
+    public boolean verifyQueryPlans() {
+        if (schemaManager.getCurrentVersion() < schemaManager.getLatestVersion()) {
+            System.out.println("⚠️ Schema is not at the latest version; plans may be missing indexes.");
+        }
+        return QueryCatalog.addAll(new QueryPlanVerifier()).verify();
+    }
+
+    /**
+     * Print the newest entries of the change journal
+     * @param count Maximum number of entries
+     */
+    public void displayRecentChanges(int count) {
+        ChangeJournal journal = ChangeJournal.getDefault();
+        if (journal == null) {
+            System.out.println("📭 The change journal is disabled.");
+            return;
+        }
+
+        long last = journal.getLastSequence();
+        if (last == 0) {
+            System.out.println("📭 No changes recorded yet.");
+            return;
+        }
+        try {
+            System.out.println("\n📜 RECENT CHANGES (" + last + " recorded):");
+            System.out.println("-".repeat(60));
+            for (ChangeEvent event : journal.read(Math.max(1, last - count + 1), count)) {
+                System.out.println(event);
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Error reading change journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read all registrations into the analytics snapshot, picking up deletions and course changes
+     */
+    public void rebuildAnalyticsSnapshot() {
+        long start = System.nanoTime();
+        RegistrationColumns columns = RegistrationAnalytics.shared().rebuild();
+        if (columns != null) {
+            System.out.printf("✅ Analytics snapshot rebuilt: %d registrations in %d ms%n",
+                    columns.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Display connection pool, prepared statement cache and catalogue cache counters
+     */
+    public void displayPoolStatistics() {
+        ConnectionPool pool;
+        try {
+            pool = DatabaseConnection.getPool();
+        } catch (ClassNotFoundException e) {
+            System.err.println("❌ MySQL JDBC Driver not found: " + e.getMessage());
+            return;
+        }
+
+        long hits = pool.getStatementCacheHits();
+        long misses = pool.getStatementCacheMisses();
+
+        System.out.println("\n🔌 CONNECTION POOL:");
+        System.out.println("-".repeat(40));
+        System.out.printf("%-25s: %d%n", "Open connections", pool.getTotalConnections());
+        System.out.printf("%-25s: %d%n", "Idle connections", pool.getIdleConnections());
+        System.out.printf("%-25s: %d%n", "Borrowed connections", pool.getActiveConnections());
+        System.out.printf("%-25s: %d hits / %d misses (%.1f%% hit ratio)%n", "Statement cache",
+                hits, misses, hits + misses == 0 ? 0.0 : 100.0 * hits / (hits + misses));
+        System.out.printf("%-25s: %d%n", "Statement evictions", pool.getStatementCacheEvictions());
+
+        CourseCatalogCache catalog = CourseDAO.getCatalogCache();
+        System.out.println("\n📚 COURSE CATALOGUE CACHE:");
+        System.out.println("-".repeat(40));
+        System.out.printf("%-25s: %d%n", "Loads", catalog.getLoadCount());
+        System.out.printf("%-25s: %d%n", "Invalidations", catalog.getInvalidationCount());
+
+        TinyLfuCache<Student> students = StudentDAO.getStudentCache();
+        System.out.println("\n👥 STUDENT CACHE:");
+        System.out.println("-".repeat(40));
+        System.out.printf("%-25s: %d of %d%n", "Entries", students.size(), students.getMaximumSize());
+        System.out.printf("%-25s: %d hits / %d misses (%.1f%% hit ratio)%n", "Lookups",
+                students.getHitCount(), students.getMissCount(), 100.0 * students.getHitRatio());
+        System.out.printf("%-25s: %d%n", "Evictions", students.getEvictionCount());
+
+        EmailBloomFilter emails = StudentDAO.getEmailFilter();
+        System.out.println("\n📧 EMAIL FILTER:");
+        System.out.println("-".repeat(40));
+        if (emails == null) {
+            System.out.println("Not built; email checks go to the database.");
+        } else {
+            System.out.printf("%-25s: %d of %d%n", "Emails", emails.getApproximateCount(),
+                    emails.getExpectedInsertions());
+            System.out.printf("%-25s: %.3f%% (target %.3f%%)%n", "False positive rate",
+                    100.0 * emails.getExpectedFalsePositiveRate(), 100.0 * emails.getFalsePositiveRate());
+        }
+        System.out.printf("%-25s: %d%n", "Queries skipped", StudentDAO.getEmailQueriesSkipped());
+        System.out.printf("%-25s: %d%n", "False positives", StudentDAO.getEmailFilterFalsePositives());
+
+        EnrollmentIndex enrollments = RegistrationDAO.getEnrollmentIndex();
+        System.out.println("\n🕸️ ENROLLMENT INDEX:");
+        System.out.println("-".repeat(40));
+        if (enrollments == null) {
+            System.out.println("Not built; enrollment lookups go to the database.");
+        } else {
+            System.out.printf("%-25s: %d%n", "Registrations", enrollments.getRegistrationCount());
+            System.out.printf("%-25s: %.1f KB%n", "Memory", enrollments.getMemoryBytes() / 1024.0);
+        }
+
+        EnrollmentAggregates aggregates = RegistrationDAO.getEnrollmentAggregates();
+        System.out.println("\n🧮 ENROLLMENT AGGREGATES:");
+        System.out.println("-".repeat(40));
+        if (aggregates == null) {
+            System.out.println("Not loaded; the enrollment report is computed from the index or a scan.");
+        } else {
+            System.out.printf("%-25s: %d%n", "Registrations", aggregates.getTotal());
+            System.out.printf("%-25s: %d departments / %d semesters%n", "Groups",
+                    aggregates.getDepartmentCounts().size(), aggregates.getSemesterCounts().size());
+        }
+
+        SeatLedger seats = RegistrationDAO.getSeatLedger();
+        System.out.println("\n🎟️ SEAT LEDGER:");
+        System.out.println("-".repeat(40));
+        System.out.printf("%-25s: %d%n", "Courses with a capacity", seats.getLimitedCourseCount());
+        System.out.printf("%-25s: %d%n", "Full courses", seats.getFullCourseCount());
+
+        Waitlists waitlists = WaitlistDAO.getWaitlists();
+        WaitlistPromoter promoter = WaitlistDAO.getPromoter();
+        System.out.println("\n⏳ WAITLISTS:");
+        System.out.println("-".repeat(40));
+        System.out.printf("%-25s: %d on %d courses%n", "Waiting",
+                waitlists.getTotal(), waitlists.getCoursesWithWaiters().size());
+        System.out.printf("%-25s: %d in %d batches, %d queued%n", "Promoted",
+                promoter.getPromotedCount(), promoter.getBatchCount(), promoter.getQueuedCount());
+        System.out.printf("%-25s: %d%n", "Seats nobody waited for", promoter.getReturnedCount());
+
+        RegistrationColumns columns = RegistrationAnalytics.shared().getSnapshot();
+        System.out.println("\n📊 ANALYTICS SNAPSHOT:");
+        System.out.println("-".repeat(40));
+        if (columns == null) {
+            System.out.println("Not loaded; built on first use of the statistics report.");
+        } else {
+            System.out.printf("%-25s: %d%n", "Registrations", columns.size());
+            System.out.printf("%-25s: %d departments / %d semesters%n", "Dictionaries",
+                    columns.getDepartments().size(), columns.getSemesters().size());
+            System.out.printf("%-25s: %.1f KB%n", "Memory", columns.getMemoryBytes() / 1024.0);
+        }
+        System.out.printf("%-25s: %s%n", "Kernels", RegistrationColumns.getKernelName());
+
+        Path snapshotPath = WarmStartService.getSnapshotPath();
+        System.out.println("\n💾 WARM-START SNAPSHOT:");
+        System.out.println("-".repeat(40));
+        try {
+            System.out.printf("%-25s: %s%n", "File", snapshotPath.toAbsolutePath());
+            System.out.printf("%-25s: %.1f KB, written %s%n", "Size",
+                    Files.size(snapshotPath) / 1024.0, Files.getLastModifiedTime(snapshotPath));
+        } catch (IOException e) {
+            System.out.println("Not written yet.");
+        }
+
+        RegistrationWriteBehind writeBehind = RegistrationDAO.getWriteBehind();
+        System.out.println("\n📮 REGISTRATION WRITE-BEHIND:");
+        System.out.println("-".repeat(40));
+        if (writeBehind == null) {
+            System.out.println("Disabled; registrations are written synchronously.");
+        } else {
+            System.out.printf("%-25s: %d%n", "Queued", writeBehind.getQueuedCount());
+            System.out.printf("%-25s: %d accepted / %d rejected%n", "Submissions",
+                    writeBehind.getAcceptedCount(), writeBehind.getRejectedCount());
+            System.out.printf("%-25s: %d in %d batches, %d failed%n", "Written",
+                    writeBehind.getWrittenCount(), writeBehind.getBatchCount(), writeBehind.getFailedCount());
+        }
+
+        ChangeJournal journal = ChangeJournal.getDefault();
+        System.out.println("\n📜 CHANGE JOURNAL:");
+        System.out.println("-".repeat(40));
+        if (journal == null) {
+            System.out.println("Disabled.");
+        } else {
+            System.out.printf("%-25s: %s%n", "File", journal.getPath());
+            System.out.printf("%-25s: %d (%.1f KB)%n", "Changes", journal.getLastSequence(),
+                    journal.getSizeBytes() / 1024.0);
+        }
+    }
+}
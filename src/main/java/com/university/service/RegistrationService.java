@@ -1,12 +1,22 @@
 package com.university.service;
 
 import com.university.dao.CourseDAO;
+import com.university.dao.InsertResult;
 import com.university.dao.RegistrationDAO;
+import com.university.dao.RegistrationOutcome;
 import com.university.dao.StudentDAO;
+import com.university.dao.StudentPage;
+import com.university.dao.WaitlistDAO;
+import com.university.database.UnitOfWork;
 import com.university.model.Course;
 import com.university.model.Student;
+import com.university.model.WaitlistEntry;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -14,15 +24,19 @@ import java.util.Scanner;
  * Handles business logic for student course assignments
  */
 public class RegistrationService {
+    private static final int STUDENT_PAGE_SIZE = 20;
+
     private RegistrationDAO registrationDAO;
     private StudentDAO studentDAO;
     private CourseDAO courseDAO;
+    private WaitlistDAO waitlistDAO;
     private Scanner scanner;
 
     public RegistrationService() {
         this.registrationDAO = new RegistrationDAO();
         this.studentDAO = new StudentDAO();
         this.courseDAO = new CourseDAO();
+        this.waitlistDAO = new WaitlistDAO();
         this.scanner = new Scanner(System.in);
     }
 
@@ -55,57 +69,93 @@ public class RegistrationService {
     }
 
     /**
-     * Display students and allow user to select one
+     * Display students one page at a time and allow user to select one
      * @return Selected Student object or null if cancelled
      */
     private Student selectStudent() {
-        List<Student> students = studentDAO.getAllStudents();
+        String namePrefix = null;
+        String emailPrefix = null;
+        Student after = null;
 
-        if (students.isEmpty()) {
-            System.out.println("❌ No students found! Please register students first.");
-            return null;
-        }
+        while (true) {
+            StudentPage page = studentDAO.getStudentsPage(namePrefix, emailPrefix, after, STUDENT_PAGE_SIZE);
 
-        System.out.println("\nAVAILABLE STUDENTS:");
-        System.out.println("-".repeat(70));
-        System.out.printf("%-5s %-20s %-25s %-15s%n", "ID", "Name", "Email", "Phone");
-        System.out.println("-".repeat(70));
+            if (page.isEmpty() && after == null && namePrefix == null && emailPrefix == null) {
+                System.out.println("❌ No students found! Please register students first.");
+                return null;
+            }
 
-        for (Student student : students) {
-            System.out.printf("%-5d %-20s %-25s %-15s%n",
-                    student.getStudentId(),
-                    student.getFullName(),
-                    student.getEmail(),
-                    student.getPhone());
-        }
+            System.out.println("\nAVAILABLE STUDENTS:");
+            System.out.println("-".repeat(70));
+            System.out.printf("%-5s %-20s %-25s %-15s%n", "ID", "Name", "Email", "Phone");
+            System.out.println("-".repeat(70));
 
-        System.out.println("-".repeat(70));
-        System.out.print("Enter Student ID to assign courses (0 to cancel): ");
+            if (page.isEmpty()) {
+                System.out.println("📭 No students match the current filter.");
+            }
+            for (Student student : page.getStudents()) {
+                System.out.printf("%-5d %-20s %-25s %-15s%n",
+                        student.getStudentId(),
+                        student.getFullName(),
+                        student.getEmail(),
+                        student.getPhone());
+            }
 
-        try {
-            int studentId = Integer.parseInt(scanner.nextLine().trim());
+            System.out.println("-".repeat(70));
+            System.out.print("Enter Student ID to assign courses"
+                    + (page.hasMore() ? ", 'n' for next page" : "")
+                    + ", 'f' to filter (0 to cancel): ");
 
-            if (studentId == 0) {
-                System.out.println("❌ Course assignment cancelled.");
-                return null;
+            String input = scanner.nextLine().trim();
+
+            if (input.equalsIgnoreCase("n")) {
+                if (page.hasMore()) {
+                    after = page.getLastStudent();
+                } else {
+                    System.out.println("📄 No more students; starting from the first page.");
+                    after = null;
+                }
+                continue;
             }
 
-            Student selectedStudent = studentDAO.getStudentById(studentId);
-            if (selectedStudent == null) {
-                System.out.println("❌ Student with ID " + studentId + " not found!");
-                return null;
+            if (input.equalsIgnoreCase("f")) {
+                System.out.print("Name starts with (blank for any): ");
+                namePrefix = blankToNull(scanner.nextLine());
+                System.out.print("Email starts with (blank for any): ");
+                emailPrefix = blankToNull(scanner.nextLine());
+                after = null;
+                continue;
             }
 
-            System.out.println("\n✅ Selected Student: " + selectedStudent.getFullName() +
-                    " (ID: " + selectedStudent.getStudentId() + ")");
-            return selectedStudent;
+            try {
+                int studentId = Integer.parseInt(input);
+
+                if (studentId == 0) {
+                    System.out.println("❌ Course assignment cancelled.");
+                    return null;
+                }
 
-        } catch (NumberFormatException e) {
-            System.out.println("❌ Invalid input! Please enter a valid student ID.");
-            return null;
+                Student selectedStudent = studentDAO.getStudentById(studentId);
+                if (selectedStudent == null) {
+                    System.out.println("❌ Student with ID " + studentId + " not found!");
+                    return null;
+                }
+
+                System.out.println("\n✅ Selected Student: " + selectedStudent.getFullName() +
+                        " (ID: " + selectedStudent.getStudentId() + ")");
+                return selectedStudent;
+
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Invalid input! Please enter a valid student ID.");
+                return null;
+            }
         }
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     /**
      * Display current courses for a student
      * @param studentId Student ID
@@ -130,6 +180,20 @@ public class RegistrationService {
                         course.getCredits(),
                         course.getDepartment());
             }
+            System.out.println("-".repeat(50));
+            System.out.println("Total: " + currentCourses.size() + " courses | "
+                    + currentCourses.stream().mapToInt(Course::getCredits).sum() + " credits");
+        }
+
+        List<WaitlistEntry> waiting = waitlistDAO.getEntriesForStudent(studentId);
+        if (!waiting.isEmpty()) {
+            System.out.println("\nWAITLISTED:");
+            for (WaitlistEntry entry : waiting) {
+                Course course = courseDAO.getCourseById(entry.getCourseId());
+                System.out.printf("%-8s position %d%n",
+                        course != null ? course.getCourseCode() : "#" + entry.getCourseId(),
+                        waitlistDAO.getPosition(studentId, entry.getCourseId()));
+            }
         }
     }
 
@@ -153,11 +217,14 @@ public class RegistrationService {
                     "ID", "Code", "Course Name", "Credits", "Department", "Semester");
             System.out.println("-".repeat(80));
 
+            // Load the student's registrations once instead of querying per course
+            BitSet registeredCourseIds = registrationDAO.getRegisteredCourseIds(student.getStudentId());
+
             for (Course course : allCourses) {
-                // Check if student is already registered
-                boolean isRegistered = registrationDAO.isStudentRegisteredForCourse(
-                        student.getStudentId(), course.getCourseId());
-                String status = isRegistered ? " [REGISTERED]" : "";
+                boolean isRegistered = registeredCourseIds.get(course.getCourseId());
+                String status = isRegistered ? " [REGISTERED]"
+                        : RegistrationDAO.getAvailableSeats(course.getCourseId()) == 0
+                                ? " [FULL, " + WaitlistDAO.getWaitingCount(course.getCourseId()) + " waiting]" : "";
 
                 System.out.printf("%-5d %-8s %-30s %-8d %-15s %-15s%s%n",
                         course.getCourseId(),
@@ -170,10 +237,21 @@ public class RegistrationService {
             }
 
             System.out.println("-".repeat(80));
-            System.out.print("Enter Course ID to assign (0 to finish): ");
+            System.out.print("Enter Course ID to assign, several IDs separated by commas, "
+                    + "or 'd' to drop a course (0 to finish): ");
 
             try {
-                int courseId = Integer.parseInt(scanner.nextLine().trim());
+                String input = scanner.nextLine().trim();
+                if (input.contains(",")) {
+                    assignCourseBatch(student, input);
+                    continue;
+                }
+                if (input.equalsIgnoreCase("d")) {
+                    dropCourse(student, registeredCourseIds);
+                    continue;
+                }
+
+                int courseId = Integer.parseInt(input);
 
                 if (courseId == 0) {
                     System.out.println("✅ Course assignment completed!");
@@ -187,7 +265,7 @@ public class RegistrationService {
                 }
 
                 // Check if already registered
-                if (registrationDAO.isStudentRegisteredForCourse(student.getStudentId(), courseId)) {
+                if (registeredCourseIds.get(courseId)) {
                     System.out.println("⚠️ Student is already registered for this course!");
                     continue;
                 }
@@ -203,14 +281,30 @@ public class RegistrationService {
 
                 String confirmation = scanner.nextLine().trim().toLowerCase();
                 if (confirmation.equals("y") || confirmation.equals("yes")) {
-                    boolean success = registrationDAO.registerStudentForCourse(
+                    RegistrationOutcome outcome = registrationDAO.submitRegistration(
                             student.getStudentId(), courseId);
 
-                    if (success) {
-                        System.out.println("🎉 SUCCESS! " + student.getFullName() +
-                                " has been registered for " + selectedCourse.getCourseCode());
-                    } else {
-                        System.out.println("❌ Failed to register student for course.");
+                    switch (outcome) {
+                        case INSERTED:
+                            System.out.println("🎉 SUCCESS! " + student.getFullName() +
+                                    " has been registered for " + selectedCourse.getCourseCode());
+                            break;
+                        case QUEUED:
+                            System.out.println("🎉 ACCEPTED! " + student.getFullName() + "'s registration for " +
+                                    selectedCourse.getCourseCode() + " will be saved shortly.");
+                            break;
+                        case ALREADY_REGISTERED:
+                            System.out.println("⚠️ Student is already registered for this course!");
+                            break;
+                        case COURSE_FULL:
+                            System.out.println("⚠️ " + selectedCourse.getCourseCode() + " is full; no seats left.");
+                            offerWaitlist(student, selectedCourse);
+                            break;
+                        case QUEUE_FULL:
+                            System.out.println("⚠️ The system is busy; please try again in a moment.");
+                            break;
+                        default:
+                            System.out.println("❌ Failed to register student for course.");
                     }
                 } else {
                     System.out.println("❌ Assignment cancelled.");
@@ -222,6 +316,129 @@ public class RegistrationService {
         }
     }
 
+    /**
+     * Ask whether a student who missed out on a full course wants to join its waitlist
+     * @param student Selected student
+     * @param course Full course
+     */
+    private void offerWaitlist(Student student, Course course) {
+        System.out.print("Join the waitlist for " + course.getCourseCode() + "? (y/n): ");
+        String answer = scanner.nextLine().trim().toLowerCase();
+        if (!answer.equals("y") && !answer.equals("yes")) {
+            return;
+        }
+
+        InsertResult result = waitlistDAO.joinWaitlist(student.getStudentId(), course.getCourseId(),
+                WaitlistEntry.STANDARD);
+        if (result.isFailed()) {
+            System.out.println("❌ Failed to join the waitlist.");
+            return;
+        }
+        int position = waitlistDAO.getPosition(student.getStudentId(), course.getCourseId());
+        System.out.println((result.isCreated() ? "✅ Added to the waitlist" : "⚠️ Already on the waitlist")
+                + (position > 0 ? " at position " + position : "")
+                + "; the student is registered automatically when a seat frees up.");
+    }
+
+    /**
+     * Drop one of a student's courses; the freed seat goes to the course's waitlist
+     * @param student Selected student
+     * @param registeredCourseIds Courses the student is registered for
+     */
+    private void dropCourse(Student student, BitSet registeredCourseIds) {
+        System.out.print("Enter Course ID to drop: ");
+        int courseId;
+        try {
+            courseId = Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Invalid input! Please enter a valid course ID.");
+            return;
+        }
+        if (courseId <= 0) {
+            System.out.println("❌ Invalid course ID!");
+            return;
+        }
+        if (!registeredCourseIds.get(courseId)) {
+            // Not registered; maybe waiting
+            if (waitlistDAO.leaveWaitlist(student.getStudentId(), courseId)) {
+                System.out.println("✅ Removed from the waitlist for course " + courseId + ".");
+            } else {
+                System.out.println("⚠️ Student is not registered for course " + courseId + ".");
+            }
+            return;
+        }
+
+        System.out.print("Drop course " + courseId + " for " + student.getFullName() + "? (y/n): ");
+        String confirmation = scanner.nextLine().trim().toLowerCase();
+        if (!confirmation.equals("y") && !confirmation.equals("yes")) {
+            System.out.println("❌ Drop cancelled.");
+            return;
+        }
+
+        int waiting = WaitlistDAO.getWaitingCount(courseId);
+        if (registrationDAO.dropRegistration(student.getStudentId(), courseId)) {
+            System.out.println("✅ Course dropped." + (waiting > 0
+                    ? " The seat goes to the next of " + waiting + " waitlisted students." : ""));
+        } else {
+            System.out.println("❌ Failed to drop course.");
+        }
+    }
+
+    /**
+     * Register a student for a comma separated list of course IDs in one unit of work;
+     * if any course cannot be added, none are
+     * @param student Selected student
+     * @param input Comma separated course IDs
+     */
+    private void assignCourseBatch(Student student, String input) {
+        List<Integer> courseIds = new ArrayList<>();
+        for (String part : input.split(",")) {
+            if (!part.isBlank()) {
+                courseIds.add(Integer.parseInt(part.trim()));
+            }
+        }
+
+        System.out.println("\n" + "-".repeat(50));
+        System.out.println("CONFIRM BATCH COURSE ASSIGNMENT:");
+        System.out.println("Student: " + student.getFullName());
+        System.out.println("Course IDs: " + courseIds);
+        System.out.println("-".repeat(50));
+        System.out.print("Confirm assignment? (y/n): ");
+
+        String confirmation = scanner.nextLine().trim().toLowerCase();
+        if (!confirmation.equals("y") && !confirmation.equals("yes")) {
+            System.out.println("❌ Assignment cancelled.");
+            return;
+        }
+
+        // All or nothing: the student check and every registration commit together
+        Map<Integer, RegistrationOutcome> outcomes = Map.of();
+        boolean committed = false;
+        try (UnitOfWork unit = UnitOfWork.begin()) {
+            if (studentDAO.getStudentById(student.getStudentId()) == null) {
+                System.out.println("❌ Student no longer exists!");
+                return;
+            }
+            outcomes = registrationDAO.registerStudentForCourses(student.getStudentId(), courseIds);
+            if (outcomes.values().stream().allMatch(outcome -> outcome == RegistrationOutcome.INSERTED
+                    || outcome == RegistrationOutcome.ALREADY_REGISTERED)) {
+                unit.commit();
+                committed = true;
+            }
+        } catch (SQLException e) {
+            System.err.println("❌ Error committing batch registration: " + e.getMessage());
+        }
+
+        System.out.println("\nBATCH REGISTRATION RESULTS:");
+        System.out.println("-".repeat(50));
+        outcomes.forEach((courseId, outcome) ->
+                System.out.printf("%-8d %s%n", courseId, outcome.getDescription()));
+        System.out.println("-".repeat(50));
+        if (!committed && !outcomes.isEmpty()) {
+            System.out.println("⚠️ Not every course could be added, so none were registered.");
+        }
+    }
+
     /**
      * Get registration DAO for external use
      * @return RegistrationDAO instance
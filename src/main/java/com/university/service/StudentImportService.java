@@ -0,0 +1,282 @@
+package com.university.service;
+
+import com.university.dao.StudentDAO;
+import com.university.model.Student;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for bulk student import
+ * Streams a CSV file (first_name,last_name,email,phone,date_of_birth) in chunks:
+ * each chunk is validated in parallel, checked for duplicate emails with one
+ * query per chunk, and inserted with batched multi-row INSERTs.
+ * Rejected rows and a summary are written to a reject file next to the input.
+ */
+public class StudentImportService {
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final String HEADER_PREFIX = "first_name";
+
+    private StudentDAO studentDAO;
+
+    public StudentImportService() {
+        this.studentDAO = new StudentDAO();
+    }
+
+    /**
+     * Import students from a CSV file
+     * @param input CSV file with a row per student; a header row is optional
+     * @return Summary of the import, or null if the file could not be read
+     */
+    public ImportSummary importFromCsv(Path input) {
+        Path rejectFile = input.resolveSibling(input.getFileName() + ".rejects.csv");
+        ImportSummary summary = new ImportSummary(rejectFile);
+        // Emails seen earlier in this file, to reject duplicates within the file itself
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+
+            rejects.write("line,reason,original_row");
+            rejects.newLine();
+
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            long firstLineNumber = 1;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith(HEADER_PREFIX)) {
+                    firstLineNumber = 2;
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    importChunk(lines, firstLineNumber, seenEmails, rejects, summary);
+                    firstLineNumber = lineNumber + 1;
+                    lines.clear();
+                }
+            }
+            if (!lines.isEmpty()) {
+                importChunk(lines, firstLineNumber, seenEmails, rejects, summary);
+            }
+
+            rejects.write("# Summary: " + summary.getTotalRows() + " rows read, "
+                    + summary.getImported() + " imported, " + summary.getRejected() + " rejected");
+            rejects.newLine();
+
+        } catch (IOException e) {
+            System.err.println("❌ Error importing students from " + input + ": " + e.getMessage());
+            return null;
+        }
+
+        return summary;
+    }
+
+    /**
+     * Validate, de-duplicate and insert one chunk of CSV lines
+     */
+    private void importChunk(List<String> lines, long firstLineNumber, Set<String> seenEmails,
+                             BufferedWriter rejects, ImportSummary summary) throws IOException {
+        // Step 1: parse and validate in parallel; results keep their input order
+        List<ParsedRow> rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            rows.add(new ParsedRow(firstLineNumber + i, lines.get(i)));
+        }
+        rows.parallelStream().forEach(ParsedRow::validate);
+
+        // Step 2: duplicates within the file, then one bulk lookup against the database
+        List<ParsedRow> candidates = new ArrayList<>();
+        for (ParsedRow row : rows) {
+            if (row.reason == null && !seenEmails.add(row.normalizedEmail)) {
+                row.reason = "duplicate email in file";
+            }
+            if (row.reason == null) {
+                candidates.add(row);
+            }
+        }
+
+        Set<String> existing = studentDAO.findExistingEmails(
+                candidates.stream().map(row -> row.student.getEmail()).collect(Collectors.toList()));
+
+        List<Student> accepted = new ArrayList<>(candidates.size());
+        for (ParsedRow row : candidates) {
+            if (existing.contains(row.normalizedEmail)) {
+                row.reason = "email already registered";
+            } else {
+                accepted.add(row.student);
+            }
+        }
+
+        // Step 3: batched insert of the accepted rows
+        int inserted = studentDAO.addStudentsBatch(accepted, INSERT_BATCH_SIZE);
+        List<ParsedRow> notInserted = new ArrayList<>();
+        for (ParsedRow row : candidates) {
+            if (row.reason == null && row.student.getStudentId() == 0) {
+                notInserted.add(row);
+            }
+        }
+        if (!notInserted.isEmpty()) {
+            // Emails added by another session since the lookup were skipped, not failed
+            Set<String> addedMeanwhile = studentDAO.findExistingEmails(
+                    notInserted.stream().map(row -> row.student.getEmail()).collect(Collectors.toList()));
+            for (ParsedRow row : notInserted) {
+                row.reason = addedMeanwhile.contains(row.normalizedEmail)
+                        ? "email already registered" : "database insert failed";
+            }
+        }
+
+        for (ParsedRow row : rows) {
+            if (row.reason != null) {
+                rejects.write(row.lineNumber + "," + csvQuote(row.reason) + "," + csvQuote(row.line));
+                rejects.newLine();
+            }
+        }
+
+        summary.add(rows.size(), inserted);
+        System.out.println("   ... " + summary.getTotalRows() + " rows processed, "
+                + summary.getImported() + " imported");
+    }
+
+    /**
+     * Split a CSV line into fields, honouring double-quoted fields
+     * @param line CSV line
+     * @return Field values
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static String csvQuote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * One CSV line and the result of validating it
+     */
+    private static class ParsedRow {
+        final long lineNumber;
+        final String line;
+        Student student;
+        String normalizedEmail;
+        String reason;
+
+        ParsedRow(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        /**
+         * Apply the same rules as the interactive registration form
+         */
+        void validate() {
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != 5) {
+                reason = "expected 5 fields but found " + fields.size();
+                return;
+            }
+
+            String firstName = fields.get(0);
+            String lastName = fields.get(1);
+            String email = fields.get(2);
+            String phone = fields.get(3);
+
+            if (firstName.isEmpty()) {
+                reason = "first name is empty";
+                return;
+            }
+            if (lastName.isEmpty()) {
+                reason = "last name is empty";
+                return;
+            }
+            if (!StudentService.isValidEmail(email)) {
+                reason = "invalid email format";
+                return;
+            }
+            if (!StudentService.isValidPhone(phone)) {
+                reason = "invalid phone number format";
+                return;
+            }
+
+            LocalDate dateOfBirth;
+            try {
+                dateOfBirth = LocalDate.parse(fields.get(4), DateTimeFormatter.ISO_LOCAL_DATE);
+            } catch (DateTimeParseException e) {
+                reason = "invalid date of birth, expected YYYY-MM-DD";
+                return;
+            }
+            if (dateOfBirth.isAfter(LocalDate.now())) {
+                reason = "date of birth is in the future";
+                return;
+            }
+
+            student = new Student(firstName, lastName, email, phone, dateOfBirth);
+            normalizedEmail = email.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Counts for a finished import
+     */
+    public static class ImportSummary {
+        private final Path rejectFile;
+        private long totalRows;
+        private long imported;
+
+        ImportSummary(Path rejectFile) {
+            this.rejectFile = rejectFile;
+        }
+
+        void add(long rows, long insertedRows) {
+            totalRows += rows;
+            imported += insertedRows;
+        }
+
+        public Path getRejectFile() { return rejectFile; }
+
+        public long getTotalRows() { return totalRows; }
+
+        public long getImported() { return imported; }
+
+        public long getRejected() { return totalRows - imported; }
+    }
+}
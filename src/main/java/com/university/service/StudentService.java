@@ -1,7 +1,10 @@
 package com.university.service;
 
+import com.university.dao.InsertResult;
 import com.university.dao.StudentDAO;
+import com.university.dao.StudentPage;
 import com.university.model.Student;
+import com.university.report.ReportWriter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -15,6 +18,11 @@ import java.util.regex.Pattern;
  * Handles business logic and user interaction for student management
  */
 public class StudentService {
+    private static final int STUDENT_PAGE_SIZE = 20;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    // Allow digits, spaces, hyphens, and parentheses
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^[\\d\\s\\-\\(\\)\\+]{10,15}$");
+
     private StudentDAO studentDAO;
     private Scanner scanner;
 
@@ -54,8 +62,7 @@ public class StudentService {
                 System.out.println("❌ Invalid email format!");
                 return;
             }
-
-            // Check if email already exists
+            // Answered from the email filter for new emails; the insert still rejects duplicates
             if (studentDAO.emailExists(email)) {
                 System.out.println("❌ A student with this email already exists!");
                 return;
@@ -98,11 +105,13 @@ public class StudentService {
 
             String confirmation = scanner.nextLine().trim().toLowerCase();
             if (confirmation.equals("y") || confirmation.equals("yes")) {
-                // Save student to database
-                int studentId = studentDAO.addStudent(student);
-                if (studentId > 0) {
-                    System.out.println("\n🎉 SUCCESS! Student registered with ID: " + studentId);
+                // Save student to database; the unique email index rejects duplicates in the same statement
+                InsertResult result = studentDAO.addStudentIfAbsent(student);
+                if (result.isCreated()) {
+                    System.out.println("\n🎉 SUCCESS! Student registered with ID: " + result.getId());
                     System.out.println("Student Name: " + student.getFullName());
+                } else if (result.isAlreadyExists()) {
+                    System.out.println("❌ A student with this email already exists! (ID: " + result.getId() + ")");
                 } else {
                     System.out.println("❌ Failed to register student. Please try again.");
                 }
@@ -117,36 +126,51 @@ public class StudentService {
     }
 
     /**
-     * Display all registered students
+     * Display all registered students, one page at a time
      */
     public void displayAllStudents() {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("                        ALL REGISTERED STUDENTS");
-        System.out.println("=".repeat(80));
+        try (ReportWriter out = ReportWriter.toConsole()) {
+            out.println().rule('=', 80);
+            out.println("                        ALL REGISTERED STUDENTS");
+            out.rule('=', 80);
 
-        List<Student> students = studentDAO.getAllStudents();
+            StudentPage page = studentDAO.getStudentsPage(null, null, null, STUDENT_PAGE_SIZE);
 
-        if (students.isEmpty()) {
-            System.out.println("📭 No students found in the database.");
-            return;
-        }
+            if (page.isEmpty()) {
+                out.println("📭 No students found in the database.");
+                return;
+            }
 
-        System.out.printf("%-5s %-15s %-15s %-25s %-15s %-12s%n",
-                "ID", "First Name", "Last Name", "Email", "Phone", "Birth Date");
-        System.out.println("-".repeat(80));
-
-        for (Student student : students) {
-            System.out.printf("%-5d %-15s %-15s %-25s %-15s %-12s%n",
-                    student.getStudentId(),
-                    student.getFirstName(),
-                    student.getLastName(),
-                    student.getEmail(),
-                    student.getPhone(),
-                    student.getDateOfBirth());
-        }
+            out.printf("%-5s %-15s %-15s %-25s %-15s %-12s%n",
+                    "ID", "First Name", "Last Name", "Email", "Phone", "Birth Date");
+            out.rule('-', 80);
+
+            int shown = 0;
+            while (true) {
+                for (Student student : page.getStudents()) {
+                    out.printf("%-5d %-15s %-15s %-25s %-15s %-12s%n",
+                            student.getStudentId(),
+                            student.getFirstName(),
+                            student.getLastName(),
+                            student.getEmail(),
+                            student.getPhone(),
+                            student.getDateOfBirth());
+                }
+                shown += page.getStudents().size();
+
+                if (!page.hasMore()) {
+                    break;
+                }
+                out.print("-- Press Enter for more, 'q' to stop -- ").flush();
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+                page = studentDAO.getStudentsPage(null, null, page.getLastStudent(), STUDENT_PAGE_SIZE);
+            }
 
-        System.out.println("-".repeat(80));
-        System.out.println("Total Students: " + students.size());
+            out.rule('-', 80);
+            out.println((page.hasMore() ? "Students Shown: " : "Total Students: ") + shown);
+        }
     }
 
     /**
@@ -171,10 +195,8 @@ public class StudentService {
      * @param email Email to validate
      * @return true if valid, false otherwise
      */
-    private boolean isValidEmail(String email) {
-        String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";
-        Pattern pattern = Pattern.compile(emailRegex);
-        return pattern.matcher(email).matches();
+    static boolean isValidEmail(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 
     /**
@@ -182,10 +204,7 @@ public class StudentService {
      * @param phone Phone number to validate
      * @return true if valid, false otherwise
      */
-    private boolean isValidPhone(String phone) {
-        // Allow digits, spaces, hyphens, and parentheses
-        String phoneRegex = "^[\\d\\s\\-\\(\\)\\+]{10,15}$";
-        Pattern pattern = Pattern.compile(phoneRegex);
-        return pattern.matcher(phone).matches();
+    static boolean isValidPhone(String phone) {
+        return PHONE_PATTERN.matcher(phone).matches();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.university.service;
+
+import com.university.analytics.RegistrationAnalytics;
+import com.university.analytics.RegistrationColumns;
+import com.university.dao.CourseDAO;
+import com.university.dao.RegistrationDAO;
+import com.university.dao.SnapshotDAO;
+import com.university.dao.StudentDAO;
+import com.university.database.SchemaManager;
+import com.university.model.Course;
+import com.university.snapshot.SnapshotWriter;
+import com.university.snapshot.WarmSnapshot;
+import com.university.util.IntObjectMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Service class for warm starts from a binary snapshot file
+ * At boot the caches and indexes are filled from a memory-mapped snapshot instead of
+ * full table scans; a background thread then reads whatever was added since the
+ * snapshot was written. Until that catch-up finishes, lookups may miss students and
+ * registrations created after the snapshot, which the DAOs' duplicate-safe inserts tolerate,
+ * and may still see registrations dropped since.
+ *
+ * -Dsnapshot.path sets the file (default data/warm-start.snapshot) and
+ * -Dsnapshot.intervalSeconds how often it is rewritten (default 900, 0 to disable).
+ */
+public class WarmStartService {
+    private static final Path SNAPSHOT_PATH = Path.of(System.getProperty("snapshot.path", "data/warm-start.snapshot"));
+    private static final long WRITE_INTERVAL_SECONDS = Long.getLong("snapshot.intervalSeconds", 900);
+
+    private final SchemaManager schemaManager;
+    private final SnapshotDAO snapshotDAO;
+    private final CourseDAO courseDAO;
+    private ScheduledExecutorService writer;
+
+    public WarmStartService() {
+        this.schemaManager = new SchemaManager();
+        this.snapshotDAO = new SnapshotDAO();
+        this.courseDAO = new CourseDAO();
+    }
+
+    /**
+     * Fill the course catalogue, email filter, enrollment index, enrollment aggregates and
+     * analytics snapshot from the snapshot file, then start the background catch-up
+     * @return true if the caches were loaded, false if there is no usable snapshot
+     */
+    public boolean loadSnapshot() {
+        if (!Files.exists(SNAPSHOT_PATH)) {
+            System.out.println("📭 No warm-start snapshot at " + SNAPSHOT_PATH.toAbsolutePath() + "; loading from the database.");
+            return false;
+        }
+
+        long start = System.nanoTime();
+        WarmSnapshot snapshot;
+        try {
+            snapshot = WarmSnapshot.open(SNAPSHOT_PATH);
+        } catch (IOException e) {
+            System.err.println("⚠️ Ignoring warm-start snapshot: " + e.getMessage());
+            return false;
+        }
+        if (snapshot.getSchemaVersion() != schemaManager.getCurrentVersion()) {
+            System.out.println("⚠️ Warm-start snapshot was written for schema version " + snapshot.getSchemaVersion()
+                    + "; loading from the database.");
+            return false;
+        }
+
+        List<Course> courses = snapshot.getCourses();
+        CourseDAO.seedCatalog(courses);
+
+        int studentCount = snapshot.getStudentCount();
+        StudentDAO.seedEmailFilter(studentCount, () -> emails(snapshot, studentCount));
+
+        int registrationCount = snapshot.getRegistrationCount();
+        RegistrationDAO.seedEnrollmentIndex(builder -> {
+            for (int i = 0; i < registrationCount; i++) {
+                builder.add(snapshot.getRegistrationStudentId(i), snapshot.getRegistrationCourseId(i));
+            }
+        });
+
+        IntObjectMap<Course> coursesById = new IntObjectMap<>(courses.size());
+        for (Course course : courses) {
+            coursesById.put(course.getCourseId(), course);
+        }
+        Map<Integer, Long> courseCounts = new HashMap<>();
+        RegistrationColumns.Appender columns = RegistrationColumns.empty().appender();
+        for (int i = 0; i < registrationCount; i++) {
+            Course course = coursesById.get(snapshot.getRegistrationCourseId(i));
+            if (course != null) {
+                courseCounts.merge(course.getCourseId(), 1L, Long::sum);
+                columns.add(snapshot.getRegistrationId(i), snapshot.getRegistrationStudentId(i), course.getCourseId(),
+                        course.getCredits(), course.getDepartment(), course.getSemester(),
+                        snapshot.getEnrolledAtEpochSecond(i));
+            }
+        }
+        RegistrationDAO.seedEnrollmentAggregates(courseCounts);
+        RegistrationAnalytics.shared().seed(columns.build());
+
+        System.out.printf("✅ Warm start from snapshot of %s: %d courses, %d students, %d registrations in %d ms%n",
+                Instant.ofEpochMilli(snapshot.getCreatedAtMillis()), courses.size(), studentCount,
+                registrationCount, (System.nanoTime() - start) / 1_000_000);
+
+        startCatchUp(snapshot.getMaxStudentId(), snapshot.getMaxRegistrationId());
+        return true;
+    }
+
+    /**
+     * Rewrite the snapshot every snapshot.intervalSeconds on a daemon thread,
+     * starting right away if there is no snapshot yet
+     */
+    public synchronized void startPeriodicWrites() {
+        if (writer != null || WRITE_INTERVAL_SECONDS <= 0) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "warm-start-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long initialDelay = Files.exists(SNAPSHOT_PATH) ? WRITE_INTERVAL_SECONDS : 0;
+        writer.scheduleWithFixedDelay(() -> writeSnapshot(false),
+                initialDelay, WRITE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the periodic writes; a write in progress is abandoned
+     */
+    public synchronized void stop() {
+        if (writer != null) {
+            writer.shutdownNow();
+            writer = null;
+        }
+    }
+
+    /**
+     * Write a new snapshot from a consistent read of students, courses and registrations
+     * @param verbose false to print nothing unless the write fails
+     * @return true if the snapshot file was replaced
+     */
+    public boolean writeSnapshot(boolean verbose) {
+        long start = System.nanoTime();
+        int schemaVersion = schemaManager.getCurrentVersion();
+        if (schemaVersion < 0) {
+            return false;
+        }
+
+        try (SnapshotWriter snapshot = new SnapshotWriter(SNAPSHOT_PATH)) {
+            if (!snapshotDAO.exportTo(snapshot)) {
+                return false;
+            }
+            snapshot.commit(schemaVersion);
+            if (verbose) {
+                System.out.printf("✅ Warm-start snapshot written: %d courses, %d students, %d registrations, "
+                                + "%.1f KB in %d ms%n",
+                        snapshot.getCourseCount(), snapshot.getStudentCount(), snapshot.getRegistrationCount(),
+                        Files.size(SNAPSHOT_PATH) / 1024.0, (System.nanoTime() - start) / 1_000_000);
+            }
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error writing warm-start snapshot: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * @return Snapshot file, which may not exist yet
+     */
+    public static Path getSnapshotPath() {
+        return SNAPSHOT_PATH;
+    }
+
+    /**
+     * Bring everything loaded from the snapshot up to date on a daemon thread.
+     * New registrations are read incrementally; if the enrollment index or analytics snapshot
+     * then holds a different number of registrations than the table, it is rebuilt.
+     */
+    private void startCatchUp(int maxStudentId, int maxRegistrationId) {
+        Thread catchUp = new Thread(() -> {
+            CourseDAO.getCatalogCache().invalidate();
+            courseDAO.getAllCourses();
+            StudentDAO.syncEmailFilter(maxStudentId);
+            // Both compare their counts with the table and rebuild if rows were dropped meanwhile
+            RegistrationDAO.syncEnrollmentIndex(maxRegistrationId);
+            RegistrationAnalytics.shared().refresh();
+            RegistrationDAO.reconcileEnrollmentAggregates(false);
+        }, "warm-start-catch-up");
+        catchUp.setDaemon(true);
+        catchUp.start();
+    }
+
+    private static Iterator<String> emails(WarmSnapshot snapshot, int studentCount) {
+        return IntStream.range(0, studentCount).mapToObj(snapshot::getStudentEmail).iterator();
+    }
+}
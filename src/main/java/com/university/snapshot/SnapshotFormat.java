@@ -0,0 +1,45 @@
+package com.university.snapshot;
+
+/**
+ * Layout of the warm-start snapshot file
+ * <pre>
+ * header        64 bytes, see the offsets below
+ * courses       COURSE_BYTES each, in course code order
+ * students      STUDENT_BYTES each, in student ID order
+ * registrations REGISTRATION_BYTES each, in registration ID order
+ * string heap   (int byte length, UTF-8 bytes) entries
+ * </pre>
+ * All numbers are big-endian. String fields hold an offset into the heap, or NO_STRING
+ * for null. The checksum is a CRC-32 of everything after the header.
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x53525753; // "SRWS"
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 64;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_VERSION_OFFSET = 4;
+    static final int SCHEMA_VERSION_OFFSET = 8;
+    static final int COURSE_COUNT_OFFSET = 12;
+    static final int STUDENT_COUNT_OFFSET = 16;
+    static final int REGISTRATION_COUNT_OFFSET = 20;
+    static final int HEAP_BYTES_OFFSET = 24;
+    static final int CREATED_AT_OFFSET = 28;
+    static final int MAX_STUDENT_ID_OFFSET = 36;
+    static final int MAX_REGISTRATION_ID_OFFSET = 40;
+    static final int CHECKSUM_OFFSET = 44;
+
+    // course_id, code, name, credits, department, semester, capacity
+    static final int COURSE_BYTES = 28;
+    // student_id, first name, last name, email, phone, date of birth (epoch day), registered at (epoch second)
+    static final int STUDENT_BYTES = 32;
+    // registration_id, student_id, course_id, grade, enrolled at (epoch second)
+    static final int REGISTRATION_BYTES = 24;
+
+    static final int NO_STRING = -1;
+    static final int NO_CAPACITY = -1;
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private SnapshotFormat() {}
+}
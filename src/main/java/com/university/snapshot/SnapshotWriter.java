@@ -0,0 +1,212 @@
+package com.university.snapshot;
+
+import com.university.model.Course;
+import com.university.model.Registration;
+import com.university.model.Student;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static com.university.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes a warm-start snapshot
+ * Records are streamed to a temporary file next to the target as they are added;
+ * commit() appends the string heap, fills in the header and moves the file into place,
+ * so readers only ever see a complete snapshot. Add all courses, then all students,
+ * then all registrations.
+ */
+public class SnapshotWriter implements AutoCloseable {
+    private static final int SECTION_COURSES = 0;
+    private static final int SECTION_STUDENTS = 1;
+    private static final int SECTION_REGISTRATIONS = 2;
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final CRC32 checksum = new CRC32();
+    private final DataOutputStream body;
+
+    private final ByteArrayOutputStream heap = new ByteArrayOutputStream(1 << 16);
+    private final Map<String, Integer> sharedStrings = new HashMap<>();
+
+    private int section = SECTION_COURSES;
+    private int courseCount;
+    private int studentCount;
+    private int registrationCount;
+    private int maxStudentId;
+    private int maxRegistrationId;
+    private boolean committed;
+
+    /**
+     * @param target Snapshot file to create or replace on commit()
+     * @throws IOException if the temporary file cannot be created
+     */
+    public SnapshotWriter(Path target) throws IOException {
+        this.target = target.toAbsolutePath();
+        Files.createDirectories(this.target.getParent());
+        this.temporary = Files.createTempFile(this.target.getParent(), this.target.getFileName().toString(), ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+        this.channel.position(HEADER_BYTES);
+        this.body = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Channels.newOutputStream(channel), checksum), 1 << 16));
+    }
+
+    /**
+     * @param course Course to add; all courses must be added before any student
+     */
+    public void addCourse(Course course) throws IOException {
+        enterSection(SECTION_COURSES);
+        body.writeInt(course.getCourseId());
+        body.writeInt(shared(course.getCourseCode()));
+        body.writeInt(shared(course.getCourseName()));
+        body.writeInt(course.getCredits());
+        body.writeInt(shared(course.getDepartment()));
+        body.writeInt(shared(course.getSemester()));
+        body.writeInt(course.getCapacity() != null ? course.getCapacity() : NO_CAPACITY);
+        courseCount++;
+    }
+
+    /**
+     * @param student Student to add; all students must be added before any registration
+     */
+    public void addStudent(Student student) throws IOException {
+        enterSection(SECTION_STUDENTS);
+        body.writeInt(student.getStudentId());
+        body.writeInt(shared(student.getFirstName()));
+        body.writeInt(shared(student.getLastName()));
+        body.writeInt(unique(student.getEmail()));
+        body.writeInt(unique(student.getPhone()));
+        body.writeInt(student.getDateOfBirth() != null ? (int) student.getDateOfBirth().toEpochDay() : NO_DATE);
+        body.writeLong(epochSecond(student.getRegistrationDate()));
+        studentCount++;
+        maxStudentId = Math.max(maxStudentId, student.getStudentId());
+    }
+
+    /**
+     * @param registration Registration to add, without joined student and course
+     */
+    public void addRegistration(Registration registration) throws IOException {
+        enterSection(SECTION_REGISTRATIONS);
+        body.writeInt(registration.getRegistrationId());
+        body.writeInt(registration.getStudentId());
+        body.writeInt(registration.getCourseId());
+        body.writeInt(shared(registration.getGrade()));
+        body.writeLong(epochSecond(registration.getEnrollmentDate()));
+        registrationCount++;
+        maxRegistrationId = Math.max(maxRegistrationId, registration.getRegistrationId());
+    }
+
+    /**
+     * Finish the file and atomically replace the target with it
+     * @param schemaVersion Schema version the data was read with
+     * @throws IOException if writing or moving fails; the target is left unchanged
+     */
+    public void commit(int schemaVersion) throws IOException {
+        heap.writeTo(body);
+        body.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        header.putInt(SCHEMA_VERSION_OFFSET, schemaVersion);
+        header.putInt(COURSE_COUNT_OFFSET, courseCount);
+        header.putInt(STUDENT_COUNT_OFFSET, studentCount);
+        header.putInt(REGISTRATION_COUNT_OFFSET, registrationCount);
+        header.putInt(HEAP_BYTES_OFFSET, heap.size());
+        header.putLong(CREATED_AT_OFFSET, System.currentTimeMillis());
+        header.putInt(MAX_STUDENT_ID_OFFSET, maxStudentId);
+        header.putInt(MAX_REGISTRATION_ID_OFFSET, maxRegistrationId);
+        header.putInt(CHECKSUM_OFFSET, (int) checksum.getValue());
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        channel.close();
+
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    public int getCourseCount() { return courseCount; }
+
+    public int getStudentCount() { return studentCount; }
+
+    public int getRegistrationCount() { return registrationCount; }
+
+    /**
+     * Discard the temporary file unless the snapshot was committed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void enterSection(int next) {
+        if (next < section) {
+            throw new IllegalStateException("Snapshot records must be added as courses, students, registrations");
+        }
+        section = next;
+    }
+
+    /**
+     * Heap offset for a value that repeats across rows, written once
+     */
+    private int shared(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        Integer offset = sharedStrings.get(value);
+        if (offset == null) {
+            offset = unique(value);
+            sharedStrings.put(value, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Heap offset for a value that is unlikely to repeat, e.g. an email
+     */
+    private int unique(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        int offset = heap.size();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if ((long) offset + 4 + bytes.length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Snapshot string heap exceeds 2 GB");
+        }
+        heap.write(bytes.length >>> 24);
+        heap.write(bytes.length >>> 16);
+        heap.write(bytes.length >>> 8);
+        heap.write(bytes.length);
+        heap.write(bytes, 0, bytes.length);
+        return offset;
+    }
+
+    /**
+     * Same encoding as RegistrationDAO.forEachRegistrationFact: the instant in the JVM's time zone
+     */
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime).toInstant().getEpochSecond() : NO_TIMESTAMP;
+    }
+}
@@ -0,0 +1,204 @@
+package com.university.snapshot;
+
+import com.university.model.Course;
+import com.university.model.Student;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.university.snapshot.SnapshotFormat.*;
+
+/**
+ * Read-only view of a warm-start snapshot file, memory-mapped
+ * Opening maps the file and verifies the header and checksum; records are then read
+ * straight from the mapping by index, so nothing is copied onto the heap until asked for.
+ */
+public class WarmSnapshot {
+    private final MappedByteBuffer buffer;
+    private final int schemaVersion;
+    private final long createdAtMillis;
+    private final int courseCount;
+    private final int studentCount;
+    private final int registrationCount;
+    private final int maxStudentId;
+    private final int maxRegistrationId;
+    private final int studentsOffset;
+    private final int registrationsOffset;
+    private final int heapOffset;
+
+    private WarmSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("Not a warm-start snapshot");
+        }
+        if (buffer.getInt(FORMAT_VERSION_OFFSET) != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + buffer.getInt(FORMAT_VERSION_OFFSET));
+        }
+        this.schemaVersion = buffer.getInt(SCHEMA_VERSION_OFFSET);
+        this.createdAtMillis = buffer.getLong(CREATED_AT_OFFSET);
+        this.courseCount = buffer.getInt(COURSE_COUNT_OFFSET);
+        this.studentCount = buffer.getInt(STUDENT_COUNT_OFFSET);
+        this.registrationCount = buffer.getInt(REGISTRATION_COUNT_OFFSET);
+        this.maxStudentId = buffer.getInt(MAX_STUDENT_ID_OFFSET);
+        this.maxRegistrationId = buffer.getInt(MAX_REGISTRATION_ID_OFFSET);
+
+        long students = HEADER_BYTES + (long) courseCount * COURSE_BYTES;
+        long registrations = students + (long) studentCount * STUDENT_BYTES;
+        long heap = registrations + (long) registrationCount * REGISTRATION_BYTES;
+        int heapBytes = buffer.getInt(HEAP_BYTES_OFFSET);
+        if (courseCount < 0 || studentCount < 0 || registrationCount < 0 || heapBytes < 0
+                || heap + heapBytes != buffer.capacity()) {
+            throw new IOException("Snapshot is truncated or corrupt");
+        }
+        this.studentsOffset = (int) students;
+        this.registrationsOffset = (int) registrations;
+        this.heapOffset = (int) heap;
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES));
+        if ((int) crc.getValue() != buffer.getInt(CHECKSUM_OFFSET)) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+    }
+
+    /**
+     * Map and validate a snapshot file
+     * @param path Snapshot file
+     * @return Snapshot view
+     * @throws IOException if the file cannot be read, is larger than 2 GB or fails validation
+     */
+    public static WarmSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + channel.size() + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            return new WarmSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getSchemaVersion() { return schemaVersion; }
+
+    public long getCreatedAtMillis() { return createdAtMillis; }
+
+    public int getCourseCount() { return courseCount; }
+
+    public int getStudentCount() { return studentCount; }
+
+    public int getRegistrationCount() { return registrationCount; }
+
+    /**
+     * @return Highest student ID in the snapshot; students above it were added later
+     */
+    public int getMaxStudentId() { return maxStudentId; }
+
+    /**
+     * @return Highest registration ID in the snapshot; registrations above it were added later
+     */
+    public int getMaxRegistrationId() { return maxRegistrationId; }
+
+    public long getSizeBytes() { return buffer.capacity(); }
+
+    /**
+     * @return All courses, in course code order
+     */
+    public List<Course> getCourses() {
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            int at = HEADER_BYTES + i * COURSE_BYTES;
+            Course course = new Course(buffer.getInt(at), string(buffer.getInt(at + 4)), string(buffer.getInt(at + 8)),
+                    buffer.getInt(at + 12), string(buffer.getInt(at + 16)), string(buffer.getInt(at + 20)));
+            int capacity = buffer.getInt(at + 24);
+            course.setCapacity(capacity != NO_CAPACITY ? capacity : null);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    /**
+     * @param index Position in student ID order, 0 to getStudentCount() - 1
+     * @return Student at that position
+     */
+    public Student getStudent(int index) {
+        int at = studentRecord(index);
+        Student student = new Student();
+        student.setStudentId(buffer.getInt(at));
+        student.setFirstName(string(buffer.getInt(at + 4)));
+        student.setLastName(string(buffer.getInt(at + 8)));
+        student.setEmail(string(buffer.getInt(at + 12)));
+        student.setPhone(string(buffer.getInt(at + 16)));
+        int dateOfBirth = buffer.getInt(at + 20);
+        if (dateOfBirth != NO_DATE) {
+            student.setDateOfBirth(LocalDate.ofEpochDay(dateOfBirth));
+        }
+        student.setRegistrationDate(dateTime(buffer.getLong(at + 24)));
+        return student;
+    }
+
+    /**
+     * @param index Position in student ID order
+     * @return Email of the student, without decoding the rest of the record
+     */
+    public String getStudentEmail(int index) {
+        return string(buffer.getInt(studentRecord(index) + 12));
+    }
+
+    public int getRegistrationId(int index) {
+        return buffer.getInt(registrationRecord(index));
+    }
+
+    public int getRegistrationStudentId(int index) {
+        return buffer.getInt(registrationRecord(index) + 4);
+    }
+
+    public int getRegistrationCourseId(int index) {
+        return buffer.getInt(registrationRecord(index) + 8);
+    }
+
+    /**
+     * @param index Position in registration ID order
+     * @return Enrollment time in seconds since the epoch, Long.MIN_VALUE if unknown
+     */
+    public long getEnrolledAtEpochSecond(int index) {
+        return buffer.getLong(registrationRecord(index) + 16);
+    }
+
+    private int studentRecord(int index) {
+        if (index < 0 || index >= studentCount) {
+            throw new IndexOutOfBoundsException("Student index " + index + " of " + studentCount);
+        }
+        return studentsOffset + index * STUDENT_BYTES;
+    }
+
+    private int registrationRecord(int index) {
+        if (index < 0 || index >= registrationCount) {
+            throw new IndexOutOfBoundsException("Registration index " + index + " of " + registrationCount);
+        }
+        return registrationsOffset + index * REGISTRATION_BYTES;
+    }
+
+    private String string(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int at = heapOffset + offset;
+        byte[] bytes = new byte[buffer.getInt(at)];
+        buffer.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime dateTime(long epochSecond) {
+        return epochSecond != NO_TIMESTAMP ? Timestamp.from(Instant.ofEpochSecond(epochSecond)).toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.university.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-query string deduplication for low-cardinality columns
+ * JDBC drivers allocate a new String for every column read, so a department name
+ * repeated on a million rows becomes a million equal strings. Passing each value
+ * through intern() keeps one shared instance per distinct value.
+ * Not thread-safe; use one pool per query.
+ */
+public class StringPool {
+    private final Map<String, String> canonical = new HashMap<>();
+
+    /**
+     * @param value String read from a result set, may be null
+     * @return The pooled instance equal to value, or null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = canonical.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public int size() {
+        return canonical.size();
+    }
+}